@@ -5,6 +5,10 @@ package kr.youngminz.clitelexer;
 // exactly as it appears in Appendix B.
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 class Program {
     // Program = Declarations decpart ; Block body
@@ -17,17 +21,24 @@ class Program {
     }
 
     void display() {
-        System.out.println("import java.util.Scanner;");
-        System.out.println("class Main {");
-        System.out.println("private static Scanner scanner = new Scanner(System.in);");
-        System.out.println("private static boolean scan(boolean b) { return scanner.nextBoolean(); }");
-        System.out.println("private static int scan(int i) { return scanner.nextInt(); }");
-        System.out.println("private static char scan(char c) { return scanner.next().trim().charAt(0); }");
-        System.out.println("private static double scan(double d) { return scanner.nextDouble(); }");
-        System.out.println(decpart);
-        System.out.println("public static void main(String[] args)");
-        System.out.println(body);
-        System.out.println("}");
+        System.out.print(source());
+    }
+
+    // The program as the text of a Java class Main.
+    String source() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("import java.util.Scanner;\n");
+        sb.append("class Main {\n");
+        sb.append("private static Scanner scanner = new Scanner(System.in);\n");
+        sb.append("private static boolean scan(boolean b) { return scanner.nextBoolean(); }\n");
+        sb.append("private static int scan(int i) { return scanner.nextInt(); }\n");
+        sb.append("private static char scan(char c) { return scanner.next().trim().charAt(0); }\n");
+        sb.append("private static float scan(float f) { return scanner.nextFloat(); }\n");
+        sb.append(decpart).append('\n');
+        sb.append("public static void main(String[] args)\n");
+        sb.append(body).append('\n');
+        sb.append("}\n");
+        return sb.toString();
     }
 
 }
@@ -60,39 +71,103 @@ class Declaration {
 
     @Override
     public String toString() {
-        if(String.format("%s", t).contains("]")){
-            String temp = String.format("%s", t).substring(0, String.format("%s", t).indexOf("["));
-            return String.format("static %s[] %s = new %s;", temp, v, t);
+        if (t.isArray()) {
+            StringBuilder brackets = new StringBuilder();
+            for (int k = 0; k < t.dimensions(); k++)
+                brackets.append("[]");
+            return String.format("static %s%s %s = new %s;", t.elementType(), brackets, v, t);
         }
         return String.format("static %s %s;", t, v);
     }
 }
 
 class Type {
-    // Type = int | bool | char | float
+    // Type = int | bool | char | float | Type[size] | Type[size][size]...
+    // Types are immutable and interned: there is one instance per scalar type
+    // and per (element type, dimensions), so types compare with ==.
+    // An array of any rank is one contiguous row-major buffer of arraySize()
+    // elements; element [i0][i1]...[in] sits at i0*stride(0) + ... + in.
     final static Type INT = new Type("int");
     final static Type BOOL = new Type("boolean");
     final static Type CHAR = new Type("char");
     final static Type FLOAT = new Type("float");
     // final static Type UNDEFINED = new Type("undef");
 
-    private String id;
-    public boolean isArray = false;
-    private int arraySize = 0;
+    private final String id;
+    private final Type element;  // null for a scalar type
+    private final int arraySize; // elements in all dimensions together
+    private final int[] dims, strides; // null for a scalar type
+    // dimensions --> this[d0][d1]...
+    private final ConcurrentHashMap<List<Integer>, Type> arrays = new ConcurrentHashMap<List<Integer>, Type>();
 
     private Type(String t) {
         id = t;
+        element = null;
+        arraySize = 0;
+        dims = strides = null;
+    }
+
+    private Type(Type e, int[] dimensions) {
+        id = e.id;
+        element = e;
+        dims = dimensions;
+        strides = new int[dims.length];
+        int size = 1;
+        for (int k = dims.length - 1; k >= 0; k--) {
+            strides[k] = size;
+            size *= dims[k]; // the parser rejects arrays of more than Integer.MAX_VALUE elements
+        }
+        arraySize = size;
     }
 
-    public Type(String t, int arraysize) {
-        id = t;
-        isArray = true;
-        arraySize = arraysize;
+    Type arrayOf(int size) { // int --> int[size], the same instance for every caller
+        return arrayOf(new int[]{size});
+    }
+
+    Type arrayOf(int[] dimensions) { // int --> int[d0][d1]..., the same instance for every caller
+        List<Integer> key = new ArrayList<Integer>(dimensions.length);
+        for (int d : dimensions)
+            key.add(d);
+        Type t = arrays.get(key);
+        if (t == null) {
+            Type fresh = new Type(this, dimensions.clone());
+            t = arrays.putIfAbsent(key, fresh);
+            if (t == null)
+                t = fresh;
+        }
+        return t;
+    }
+
+    boolean isArray() {
+        return element != null;
+    }
+
+    int arraySize() {
+        return arraySize;
+    }
+
+    int dimensions() { // 1 for int[5], 2 for int[3][4]
+        return dims.length;
+    }
+
+    int dimension(int k) {
+        return dims[k];
+    }
+
+    int stride(int k) { // elements between [..][i][..] and [..][i+1][..] in dimension k
+        return strides[k];
+    }
+
+    Type elementType() { // int[100] --> int
+        return element == null ? this : element;
     }
 
     public String toString() {
-        if (isArray) {
-            return id + "[" + Integer.toString(arraySize) + "]";
+        if (isArray()) {
+            StringBuilder sb = new StringBuilder(id);
+            for (int d : dims)
+                sb.append('[').append(d).append(']');
+            return sb.toString();
         }
         return id;
 
@@ -130,11 +205,11 @@ class Block extends Statement {
 }
 
 class Assignment extends Statement {
-    // Assignment = Variable target; Expression source
-    Variable target;
+    // Assignment = VariableRef target; Expression source
+    VariableRef target;
     Expression source;
 
-    Assignment(Variable t, Expression e) {
+    Assignment(VariableRef t, Expression e) {
         target = t;
         source = e;
     }
@@ -165,7 +240,7 @@ class Conditional extends Statement {
 
     @Override
     public String toString() {
-        return String.format("if%s\n%s\nelse\n%s", test, thenbranch, elsebranch);
+        return String.format("if%s\n%s\nelse\n%s", test.test(), thenbranch, elsebranch);
     }
 }
 
@@ -181,7 +256,7 @@ class Loop extends Statement {
 
     @Override
     public String toString() {
-        return String.format("while%s\n%s", test, body);
+        return String.format("while%s\n%s", test.test(), body);
     }
 }
 
@@ -199,9 +274,9 @@ class Print extends Statement {
 }
 
 class Scan extends Statement {
-    Variable var;
+    VariableRef var;
 
-    Scan(Variable v) {
+    Scan(VariableRef v) {
         var = v;
     }
 
@@ -213,13 +288,25 @@ class Scan extends Statement {
 
 abstract class Expression {
     // Expression = Variable | Value | Binary | Unary
+    Type type; // annotated by StaticTypeCheck.V; a Value knows its own
+
+    // the text of an if or while test; Binary and Unary print their own parentheses
+    String test() {
+        return "(" + this + ")";
+    }
 
 }
 
 
-class Variable extends Expression {
+abstract class VariableRef extends Expression {
+    // VariableRef = Variable | ArrayRef
+
+}
+
+class Variable extends VariableRef {
     // Variable = String id
     private String id;
+    int slot = -1; // set by Resolver: index among the variables of its kind
 
     Variable(String s) {
         id = s;
@@ -244,10 +331,38 @@ class Variable extends Expression {
 
 }
 
+class ArrayRef extends VariableRef {
+    // ArrayRef = Variable array; Expression index
+    //          | Variable array; Expression* indices   (one per dimension)
+    // TypeTransformer replaces the indices of a multi-dimensional reference
+    // by the single row-major offset, so backends only see index.
+    Variable array;
+    Expression index;               // the first (after lowering, the only) index
+    final List<Expression> indices; // every index, starting with index
+
+    ArrayRef(Variable a, Expression i) {
+        array = a;
+        index = i;
+        indices = Collections.singletonList(i);
+    }
+
+    ArrayRef(Variable a, List<Expression> is) {
+        array = a;
+        index = is.get(0);
+        indices = is;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(array);
+        for (Expression i : indices)
+            sb.append('[').append(i).append(']');
+        return sb.toString();
+    }
+}
+
 abstract class Value extends Expression {
     // Value = IntValue | BoolValue |
     //         CharValue | FloatValue
-    protected Type type;
     protected boolean undef = true;
 
     static Value mkValue(Type type) {
@@ -360,9 +475,10 @@ class CharValue extends Value {
         return value;
     }
 
-    public String toString() {
+    public String toString() { // a Java char literal
         if (undef) return "undef";
-        return "" + value;
+        if (value == '\'' || value == '\\') return "'\\" + value + "'";
+        return "'" + value + "'";
     }
 
 }
@@ -385,9 +501,107 @@ class FloatValue extends Value {
         return value;
     }
 
-    public String toString() {
+    public String toString() { // a Java float literal
         if (undef) return "undef";
-        return "" + value;
+        return value + "f";
+    }
+
+}
+
+class ArrayValue extends Value {
+    // run-time value of a declared array: the elements unboxed in one
+    // primitive array of exactly the declared size, allocated once; only
+    // the array of the element type is non-null. A very large array is a
+    // PagedArray of element bits instead, committed a page at a time. The
+    // typed accessors read and write elements unboxed; a Value is made for
+    // an element only when get() is called.
+    // NOTE: 원소마다 값을 정했는지는 한 비트씩 둔다 (undef 검사용). 큰 배열은 그 비트도 페이지로 둔다.
+    private final Type element;
+    private final int[] ints;
+    private final float[] floats;
+    private final boolean[] bools;
+    private final char[] chars;
+    private final BitSet defined;
+    private final PagedArray paged, pagedDefined; // sparse: elements, and 32 defined bits per int
+
+    ArrayValue(Type t) {
+        type = t;
+        element = t.elementType();
+        int n = t.arraySize();
+        boolean sparse = PagedArray.sparse(n);
+        ints = !sparse && element == Type.INT ? new int[n] : null;
+        floats = !sparse && element == Type.FLOAT ? new float[n] : null;
+        bools = !sparse && element == Type.BOOL ? new boolean[n] : null;
+        chars = !sparse && element == Type.CHAR ? new char[n] : null;
+        defined = sparse ? null : new BitSet(n); // undefined until assigned
+        paged = sparse ? new PagedArray(n) : null;
+        pagedDefined = sparse ? new PagedArray((n + 31) >>> 5) : null;
+        undef = false;
+    }
+
+    int length() {
+        return type.arraySize();
+    }
+
+    // Whether element i has been assigned; callers check the bounds.
+    boolean isSet(int i) {
+        return paged != null ? (pagedDefined.get(i >>> 5) & (1 << i)) != 0 : defined.get(i);
+    }
+
+    int intAt(int i) {
+        return paged != null ? paged.get(i) : ints[i];
+    }
+
+    float floatAt(int i) {
+        return paged != null ? Float.intBitsToFloat(paged.get(i)) : floats[i];
+    }
+
+    boolean boolAt(int i) {
+        return paged != null ? paged.get(i) != 0 : bools[i];
+    }
+
+    char charAt(int i) {
+        return paged != null ? (char) paged.get(i) : chars[i];
+    }
+
+    Value get(int i) {
+        if (!isSet(i)) return mkValue(element);
+        if (element == Type.INT) return new IntValue(intAt(i));
+        if (element == Type.FLOAT) return new FloatValue(floatAt(i));
+        if (element == Type.BOOL) return new BoolValue(boolAt(i));
+        return new CharValue(charAt(i));
+    }
+
+    void setInt(int i, int v) {
+        if (paged != null) setBits(i, v);
+        else { ints[i] = v; defined.set(i); }
+    }
+
+    void setFloat(int i, float v) {
+        if (paged != null) setBits(i, Float.floatToRawIntBits(v));
+        else { floats[i] = v; defined.set(i); }
+    }
+
+    void setBool(int i, boolean v) {
+        if (paged != null) setBits(i, v ? 1 : 0);
+        else { bools[i] = v; defined.set(i); }
+    }
+
+    void setChar(int i, char v) {
+        if (paged != null) setBits(i, v);
+        else { chars[i] = v; defined.set(i); }
+    }
+
+    private void setBits(int i, int bits) {
+        paged.set(i, bits);
+        pagedDefined.set(i >>> 5, pagedDefined.get(i >>> 5) | 1 << i);
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < length(); i++)
+            sb.append(i == 0 ? "" : ", ").append(get(i));
+        return sb.append(']').toString();
     }
 
 }
@@ -405,8 +619,16 @@ class Binary extends Expression {
 
     @Override
     public String toString() {
+        // NOTE: 자바에는 boolean 대소 비교가 없다. 타입 검사를 마친 식이면 Boolean.compare 로 바꿔 쓴다.
+        if (term1.type == Type.BOOL && op.RelationalOp() && op != Operator.EQ && op != Operator.NE)
+            return String.format("(Boolean.compare(%s, %s) %s 0)", term1, term2, op);
         return String.format("(%s %s %s)", term1, op, term2);
     }
+
+    @Override
+    String test() {
+        return toString();
+    }
 }
 
 class Unary extends Expression {
@@ -419,173 +641,220 @@ class Unary extends Expression {
         term = e;
     } // unary
 
+    @Override
+    public String toString() {
+        if (op.intOp() || op.floatOp() || op.charOp())
+            return String.format("((%s) %s)", op, term);
+        return String.format("(%s%s)", op, term);
+    }
+
+    @Override
+    String test() {
+        return toString();
+    }
 }
 
-class Operator {
+enum Operator {
     // Operator = BooleanOp | RelationalOp | ArithmeticOp | UnaryOp
+    // One shared instance per operator; the category is a bit set fixed at
+    // class initialization, so classifying an operator is a field read and
+    // phases can switch on it.
     // BooleanOp = && | ||
-    final static String AND = "&&";
-    final static String OR = "||";
+    AND("&&", Category.BOOLEAN),
+    OR("||", Category.BOOLEAN),
     // RelationalOp = < | <= | == | != | >= | >
-    final static String LT = "<";
-    final static String LE = "<=";
-    final static String EQ = "==";
-    final static String NE = "!=";
-    final static String GT = ">";
-    final static String GE = ">=";
+    LT("<", Category.RELATIONAL),
+    LE("<=", Category.RELATIONAL),
+    EQ("==", Category.RELATIONAL),
+    NE("!=", Category.RELATIONAL),
+    GT(">", Category.RELATIONAL),
+    GE(">=", Category.RELATIONAL),
     // ArithmeticOp = + | - | * | /
-    final static String PLUS = "+";
-    final static String MINUS = "-";
-    final static String TIMES = "*";
-    final static String DIV = "/";
-    // UnaryOp = !
-    final static String NOT = "!";
-    final static String NEG = "-";
+    PLUS("+", Category.ARITHMETIC),
+    MINUS("-", Category.ARITHMETIC),
+    TIMES("*", Category.ARITHMETIC),
+    DIV("/", Category.ARITHMETIC),
+    // UnaryOp = ! | -
+    NOT("!", Category.NOT),
+    NEG("-", Category.NEGATE),
     // CastOp = int | float | char
-    final static String INT = "int";
-    final static String FLOAT = "float";
-    final static String CHAR = "char";
+    INT("int", Category.INT_CAST),
+    FLOAT("float", Category.FLOAT_CAST),
+    CHAR("char", Category.CHAR_CAST),
     // Typed Operators
     // RelationalOp = < | <= | == | != | >= | >
-    final static String INT_LT = "INT<";
-    final static String INT_LE = "INT<=";
-    final static String INT_EQ = "INT==";
-    final static String INT_NE = "INT!=";
-    final static String INT_GT = "INT>";
-    final static String INT_GE = "INT>=";
+    INT_LT("INT<", Category.RELATIONAL | Category.TYPED),
+    INT_LE("INT<=", Category.RELATIONAL | Category.TYPED),
+    INT_EQ("INT==", Category.RELATIONAL | Category.TYPED),
+    INT_NE("INT!=", Category.RELATIONAL | Category.TYPED),
+    INT_GT("INT>", Category.RELATIONAL | Category.TYPED),
+    INT_GE("INT>=", Category.RELATIONAL | Category.TYPED),
     // ArithmeticOp = + | - | * | /
-    final static String INT_PLUS = "INT+";
-    final static String INT_MINUS = "INT-";
-    final static String INT_TIMES = "INT*";
-    final static String INT_DIV = "INT/";
-    // UnaryOp = !
-    final static String INT_NEG = "-";
+    INT_PLUS("INT+", Category.ARITHMETIC | Category.TYPED),
+    INT_MINUS("INT-", Category.ARITHMETIC | Category.TYPED),
+    INT_TIMES("INT*", Category.ARITHMETIC | Category.TYPED),
+    INT_DIV("INT/", Category.ARITHMETIC | Category.TYPED),
+    // UnaryOp = -
+    INT_NEG("INT_NEG", Category.NEGATE | Category.TYPED),
     // RelationalOp = < | <= | == | != | >= | >
-    final static String FLOAT_LT = "FLOAT<";
-    final static String FLOAT_LE = "FLOAT<=";
-    final static String FLOAT_EQ = "FLOAT==";
-    final static String FLOAT_NE = "FLOAT!=";
-    final static String FLOAT_GT = "FLOAT>";
-    final static String FLOAT_GE = "FLOAT>=";
+    FLOAT_LT("FLOAT<", Category.RELATIONAL | Category.TYPED),
+    FLOAT_LE("FLOAT<=", Category.RELATIONAL | Category.TYPED),
+    FLOAT_EQ("FLOAT==", Category.RELATIONAL | Category.TYPED),
+    FLOAT_NE("FLOAT!=", Category.RELATIONAL | Category.TYPED),
+    FLOAT_GT("FLOAT>", Category.RELATIONAL | Category.TYPED),
+    FLOAT_GE("FLOAT>=", Category.RELATIONAL | Category.TYPED),
     // ArithmeticOp = + | - | * | /
-    final static String FLOAT_PLUS = "FLOAT+";
-    final static String FLOAT_MINUS = "FLOAT-";
-    final static String FLOAT_TIMES = "FLOAT*";
-    final static String FLOAT_DIV = "FLOAT/";
-    // UnaryOp = !
-    final static String FLOAT_NEG = "-";
+    FLOAT_PLUS("FLOAT+", Category.ARITHMETIC | Category.TYPED),
+    FLOAT_MINUS("FLOAT-", Category.ARITHMETIC | Category.TYPED),
+    FLOAT_TIMES("FLOAT*", Category.ARITHMETIC | Category.TYPED),
+    FLOAT_DIV("FLOAT/", Category.ARITHMETIC | Category.TYPED),
+    // UnaryOp = -
+    FLOAT_NEG("FLOAT_NEG", Category.NEGATE | Category.TYPED),
     // RelationalOp = < | <= | == | != | >= | >
-    final static String CHAR_LT = "CHAR<";
-    final static String CHAR_LE = "CHAR<=";
-    final static String CHAR_EQ = "CHAR==";
-    final static String CHAR_NE = "CHAR!=";
-    final static String CHAR_GT = "CHAR>";
-    final static String CHAR_GE = "CHAR>=";
+    CHAR_LT("CHAR<", Category.RELATIONAL | Category.TYPED),
+    CHAR_LE("CHAR<=", Category.RELATIONAL | Category.TYPED),
+    CHAR_EQ("CHAR==", Category.RELATIONAL | Category.TYPED),
+    CHAR_NE("CHAR!=", Category.RELATIONAL | Category.TYPED),
+    CHAR_GT("CHAR>", Category.RELATIONAL | Category.TYPED),
+    CHAR_GE("CHAR>=", Category.RELATIONAL | Category.TYPED),
     // RelationalOp = < | <= | == | != | >= | >
-    final static String BOOL_LT = "BOOL<";
-    final static String BOOL_LE = "BOOL<=";
-    final static String BOOL_EQ = "BOOL==";
-    final static String BOOL_NE = "BOOL!=";
-    final static String BOOL_GT = "BOOL>";
-    final static String BOOL_GE = "BOOL>=";
+    BOOL_LT("BOOL<", Category.RELATIONAL | Category.TYPED),
+    BOOL_LE("BOOL<=", Category.RELATIONAL | Category.TYPED),
+    BOOL_EQ("BOOL==", Category.RELATIONAL | Category.TYPED),
+    BOOL_NE("BOOL!=", Category.RELATIONAL | Category.TYPED),
+    BOOL_GT("BOOL>", Category.RELATIONAL | Category.TYPED),
+    BOOL_GE("BOOL>=", Category.RELATIONAL | Category.TYPED),
     // Type specific cast
-    final static String I2F = "I2F";
-    final static String F2I = "F2I";
-    final static String C2I = "C2I";
-    final static String I2C = "I2C";
-    final static String intMap[][] = {
+    I2F("I2F", Category.CONVERSION | Category.TYPED),
+    F2I("F2I", Category.CONVERSION | Category.TYPED),
+    C2I("C2I", Category.CONVERSION | Category.TYPED),
+    I2C("I2C", Category.CONVERSION | Category.TYPED),
+    // Subscript check of a multi-dimensional array reference: term1 if it
+    // lies in [0, term2), the size of its dimension; a run-time error if not
+    INDEX("INDEX", Category.TYPED);
+
+    private static final class Category {
+        static final int BOOLEAN = 1;
+        static final int RELATIONAL = 1 << 1;
+        static final int ARITHMETIC = 1 << 2;
+        static final int NOT = 1 << 3;
+        static final int NEGATE = 1 << 4;
+        static final int INT_CAST = 1 << 5;
+        static final int FLOAT_CAST = 1 << 6;
+        static final int CHAR_CAST = 1 << 7;
+        static final int CONVERSION = 1 << 8;
+        static final int TYPED = 1 << 9;   // already resolved for one operand type
+    }
+
+    final static Operator intMap[][] = {
             {PLUS, INT_PLUS}, {MINUS, INT_MINUS},
             {TIMES, INT_TIMES}, {DIV, INT_DIV},
             {EQ, INT_EQ}, {NE, INT_NE}, {LT, INT_LT},
             {LE, INT_LE}, {GT, INT_GT}, {GE, INT_GE},
             {NEG, INT_NEG}, {FLOAT, I2F}, {CHAR, I2C}
     };
-    final static String floatMap[][] = {
+    final static Operator floatMap[][] = {
             {PLUS, FLOAT_PLUS}, {MINUS, FLOAT_MINUS},
             {TIMES, FLOAT_TIMES}, {DIV, FLOAT_DIV},
             {EQ, FLOAT_EQ}, {NE, FLOAT_NE}, {LT, FLOAT_LT},
             {LE, FLOAT_LE}, {GT, FLOAT_GT}, {GE, FLOAT_GE},
             {NEG, FLOAT_NEG}, {INT, F2I}
     };
-    final static String charMap[][] = {
+    final static Operator charMap[][] = {
             {EQ, CHAR_EQ}, {NE, CHAR_NE}, {LT, CHAR_LT},
             {LE, CHAR_LE}, {GT, CHAR_GT}, {GE, CHAR_GE},
             {INT, C2I}
     };
-    final static String boolMap[][] = {
+    final static Operator boolMap[][] = {
             {EQ, BOOL_EQ}, {NE, BOOL_NE}, {LT, BOOL_LT},
             {LE, BOOL_LE}, {GT, BOOL_GT}, {GE, BOOL_GE},
     };
-    String val;
 
-    Operator(String s) {
+    // the maps above, indexed by the untyped operator's ordinal
+    private static final Operator[] intTyped = index(intMap);
+    private static final Operator[] floatTyped = index(floatMap);
+    private static final Operator[] charTyped = index(charMap);
+    private static final Operator[] boolTyped = index(boolMap);
+
+    final String val;
+    private final int category;
+
+    Operator(String s, int c) {
         val = s;
+        category = c;
     }
 
-    final static private Operator map(String[][] tmap, String op) {
-        for (int i = 0; i < tmap.length; i++)
-            if (tmap[i][0].equals(op))
-                return new Operator(tmap[i][1]);
-        assert false : "should never reach here";
-        return null;
+    private static Operator[] index(Operator[][] tmap) {
+        Operator[] typed = new Operator[values().length];
+        for (Operator[] pair : tmap)
+            typed[pair[0].ordinal()] = pair[1];
+        return typed;
     }
 
-    final static public Operator intMap(String op) {
-        return map(intMap, op);
+    final static private Operator map(Operator[] typed, Operator op) {
+        Operator result = typed[op.ordinal()];
+        assert result != null : "should never reach here";
+        return result;
     }
 
-    final static public Operator floatMap(String op) {
-        return map(floatMap, op);
+    final static public Operator intMap(Operator op) {
+        return map(intTyped, op);
     }
 
-    final static public Operator charMap(String op) {
-        return map(charMap, op);
+    final static public Operator floatMap(Operator op) {
+        return map(floatTyped, op);
     }
 
-    final static public Operator boolMap(String op) {
-        return map(boolMap, op);
+    final static public Operator charMap(Operator op) {
+        return map(charTyped, op);
     }
 
-    public String toString() {
-        return val;
+    final static public Operator boolMap(Operator op) {
+        return map(boolTyped, op);
     }
 
-    public boolean equals(Object obj) {
-        return val.equals(obj);
+    public String toString() {
+        return val;
     }
 
     boolean BooleanOp() {
-        return val.equals(AND) || val.equals(OR);
+        return (category & Category.BOOLEAN) != 0;
     }
 
     boolean RelationalOp() {
-        return val.equals(LT) || val.equals(LE) || val.equals(EQ)
-                || val.equals(NE) || val.equals(GT) || val.equals(GE);
+        return (category & Category.RELATIONAL) != 0;
     }
 
     boolean ArithmeticOp() {
-        return val.equals(PLUS) || val.equals(MINUS)
-                || val.equals(TIMES) || val.equals(DIV);
+        return (category & Category.ARITHMETIC) != 0;
     }
 
     boolean NotOp() {
-        return val.equals(NOT);
+        return (category & Category.NOT) != 0;
     }
 
     boolean NegateOp() {
-        return val.equals(NEG);
+        return (category & Category.NEGATE) != 0;
     }
 
     boolean intOp() {
-        return val.equals(INT);
+        return (category & Category.INT_CAST) != 0;
     }
 
     boolean floatOp() {
-        return val.equals(FLOAT);
+        return (category & Category.FLOAT_CAST) != 0;
     }
 
     boolean charOp() {
-        return val.equals(CHAR);
+        return (category & Category.CHAR_CAST) != 0;
+    }
+
+    boolean conversionOp() { // I2F, F2I, C2I, I2C
+        return (category & Category.CONVERSION) != 0;
+    }
+
+    boolean typed() { // produced by TypeTransformer
+        return (category & Category.TYPED) != 0;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package kr.youngminz.clitelexer;
+
+interface AstBuilder {
+    // What the Parser emits, as int handles: ProgramBuilder makes the heap
+    // objects of a Program, FlatAst appends nodes to its arena.
+
+    void declare(String name, Type t);
+
+    int program(int body);
+
+    int skip();
+
+    int block();
+
+    void member(int block, int statement); // append statement to block
+
+    int assignment(int target, int source);
+
+    int conditional(int test, int thenbranch, int elsebranch);
+
+    int loop(int test, int body);
+
+    int print(int expression);
+
+    int scan(int target);
+
+    int variable(String id);
+
+    int arrayRef(int variable, int index);
+
+    void index(int arrayRef, int index); // append one more index
+
+    int intLiteral(int value);
+
+    int floatLiteral(float value);
+
+    int charLiteral(char value);
+
+    int boolLiteral(boolean value);
+
+    int binary(Operator op, int term1, int term2);
+
+    int unary(Operator op, int term);
+}
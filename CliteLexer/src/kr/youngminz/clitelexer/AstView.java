@@ -0,0 +1,56 @@
+package kr.youngminz.clitelexer;
+
+interface AstView {
+    // A Program seen as int handles, so StaticTypeCheck can walk a FlatAst
+    // and a tree of heap objects (through ProgramView) with the same code.
+    // A handle is only meaningful to the view that returned it.
+
+    // node kinds
+    int PROGRAM = 0;      // first: first Declaration, second: body Block
+    int DECLARATION = 1;  // payload: name, second: type
+    int BLOCK = 2;        // first: first member, payload: member count
+    int SKIP = 3;
+    int ASSIGNMENT = 4;   // first: target, second: source
+    int CONDITIONAL = 5;  // first: test, second: then, third: else
+    int LOOP = 6;         // first: test, second: body
+    int PRINT = 7;        // first: expression
+    int SCAN = 8;         // first: target
+    int VARIABLE = 9;     // payload: name
+    int ARRAY_REF = 10;   // first: Variable, second: first index, the others linked by next
+    int INT_VALUE = 11;   // payload: value
+    int FLOAT_VALUE = 12; // payload: Float.floatToIntBits(value)
+    int CHAR_VALUE = 13;  // payload: value
+    int BOOL_VALUE = 14;  // payload: 0 or 1
+    int BINARY = 15;      // payload: operator ordinal, first: term1, second: term2
+    int UNARY = 16;       // payload: operator ordinal, first: term
+
+    int NONE = -1;
+
+    int declarations(); // the first DECLARATION, or NONE
+
+    int body();
+
+    int kind(int n);
+
+    int first(int n);
+
+    int second(int n);
+
+    int third(int n);
+
+    int next(int n); // next sibling in a Block, the declarations or the indices
+
+    int nameCount(); // at least every declared name id
+
+    int nameId(int n); // VARIABLE, DECLARATION: dense index of the name
+
+    String name(int n);
+
+    Type declaredType(int n); // DECLARATION
+
+    Operator op(int n); // BINARY, UNARY
+
+    String text(int n); // for error messages only
+
+    void annotate(int n, Type t); // record the type StaticTypeCheck found for expression n
+}
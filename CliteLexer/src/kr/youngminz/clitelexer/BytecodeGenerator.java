@@ -0,0 +1,510 @@
+package kr.youngminz.clitelexer;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import static kr.youngminz.clitelexer.ClassFile.*;
+
+class BytecodeGenerator {
+    // Compiles a lowered Program (TypeTransformer output) straight to a JVM
+    // class with a method run(Scanner in, PrintStream out), and runs it
+    // through a fresh ClassLoader in this process. Every declared variable
+    // is a static field of the class: int, bool and char as int fields,
+    // float as float fields, arrays as int[], float[], boolean[] or char[]
+    // created once at entry. Conditionals and loops compile to
+    // compare-and-branch instructions without materializing the test as a bool.
+    //
+    // Arrays are made whole with newarray, as in the Java text -javac runs;
+    // only -run, -vm and -closure page a very large array (PagedArray), so a
+    // huge declared array needs its full size in heap here.
+    //
+    // HotSpot does not compile a method of more than 8000 bytes of bytecode
+    // (-XX:HugeMethodLimit), so a statement that could grow a method past
+    // LIMIT moves whole blocks, branches or loop bodies into methods part1,
+    // part2, ... of their own, each at most LIMIT bytes. The fields let every
+    // part see every variable. What can still exceed LIMIT is a single
+    // expression, or a method that only calls more than LIMIT / 5 parts.
+    //
+    // NOTE: 모든 변수는 static 필드라서 0 으로 시작한다. (Java 로 출력한 프로그램과 같다.)
+    // Semantics 처럼 undef 오류를 내지 않는다.
+
+    static final String CLASS_NAME = "CliteProgram";
+    private static final String DESCRIPTOR = "(Ljava/util/Scanner;Ljava/io/PrintStream;)V";
+    private static final int IN = 0, OUT = 1; // parameter slots of every method
+    static final int LIMIT = 8000; // bytes of bytecode per method
+
+    // LT, LE, EQ, NE, GT, GE; the negation of relation r is 5 - r
+    private static final int[] IF_ICMP = {IF_ICMPLT, IF_ICMPLE, IF_ICMPEQ, IF_ICMPNE, IF_ICMPGT, IF_ICMPGE};
+    private static final int[] IF = {IFLT, IFLE, IFEQ, IFNE, IFGT, IFGE};
+
+    private final ClassFile cf = new ClassFile();
+    private final Map<Variable, Integer> fields = new HashMap<Variable, Integer>(); // Fieldref indices
+    private final Map<Variable, Type> types = new HashMap<Variable, Type>();
+    private final List<List<Statement>> parts = new ArrayList<List<Statement>>(); // part(i + 1) runs parts.get(i)
+
+    static class Loader extends ClassLoader {
+        Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    static byte[] generate(Program p) {
+        BytecodeGenerator g = new BytecodeGenerator();
+        g.declare(p.decpart);
+        g.emit(p.body);
+        g.cf.op(RETURN, 0);
+        g.cf.endMethod(ACC_PUBLIC | ACC_STATIC, "run", DESCRIPTOR, OUT + 1);
+        for (int i = 0; i < g.parts.size(); i++) { // emitting a part may add more parts
+            for (Statement s : g.parts.get(i))
+                g.emit(s);
+            g.cf.op(RETURN, 0);
+            g.cf.endMethod(ACC_PRIVATE | ACC_STATIC, part(i), DESCRIPTOR, OUT + 1);
+        }
+        return g.cf.toByteArray(CLASS_NAME);
+    }
+
+    static void run(Program p, InputStream in, PrintStream out) {
+        byte[] bytes = generate(p);
+        Class<?> c = new Loader(BytecodeGenerator.class.getClassLoader()).define(CLASS_NAME, bytes);
+        try {
+            invoke(c.getMethod("run", Scanner.class, PrintStream.class), new Scanner(in), out);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Call a static method of a loaded program, reporting what went wrong
+    // inside it as a Clite run-time error.
+    static void invoke(Method m, Object... args) {
+        try {
+            m.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ArithmeticException)
+                error("division by zero");
+            else if (cause instanceof ArrayIndexOutOfBoundsException)
+                error("array index out of bounds: " + cause.getMessage());
+            else if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw new IllegalStateException(cause);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void error(String msg) {
+        System.err.println("Runtime error: " + msg);
+        System.exit(1);
+    }
+
+    private void declare(Declarations ds) {
+        for (Declaration d : ds) {
+            String name = d.v.toString();
+            String descriptor = d.t.isArray() ? "[" + descriptor(d.t.elementType())
+                    : d.t == Type.FLOAT ? "F" : "I";
+            cf.field(ACC_PRIVATE | ACC_STATIC, name, descriptor);
+            int field = cf.fieldRef(CLASS_NAME, name, descriptor);
+            fields.put(d.v, field);
+            types.put(d.v, d.t);
+            if (d.t.isArray()) {
+                cf.pushInt(d.t.arraySize());
+                cf.opU1(NEWARRAY, newarrayType(d.t.elementType()), 0);
+                cf.opU2(PUTSTATIC, field, -1);
+            }
+        }
+    }
+
+    // ---- splitting ----
+
+    private static String part(int i) {
+        return "part" + (i + 1);
+    }
+
+    // Emit s into the current method, moving parts of it into methods of
+    // their own when it could make the method larger than LIMIT. Whatever
+    // stays leaves room for the method's RETURN.
+    private void emit(Statement s) {
+        if (cf.size() + size(s) < LIMIT) {
+            statement(s);
+        } else if (s instanceof Block) {
+            // consecutive members go into parts of less than LIMIT bytes; a larger member is split itself
+            List<Statement> members = ((Block) s).members;
+            int from = 0, bytes = 0;
+            for (int i = 0; i < members.size(); i++) {
+                int b = size(members.get(i));
+                if (b >= LIMIT) {
+                    call(members.subList(from, i));
+                    emit(members.get(i));
+                    from = i + 1;
+                    bytes = 0;
+                } else if (bytes + b >= LIMIT) {
+                    call(members.subList(from, i));
+                    from = i;
+                    bytes = b;
+                } else
+                    bytes += b;
+            }
+            call(members.subList(from, members.size()));
+        } else if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            Label otherwise = cf.label(), end = cf.label();
+            jump(c.test, false, otherwise);
+            branch(c.thenbranch);
+            cf.branch(GOTO, end, 0);
+            cf.place(otherwise);
+            branch(c.elsebranch);
+            cf.place(end);
+        } else if (s instanceof Loop) {
+            Loop l = (Loop) s;
+            Label body = cf.label(), test = cf.label();
+            cf.branch(GOTO, test, 0);
+            cf.place(body);
+            branch(l.body);
+            cf.place(test);
+            jump(l.test, true, body);
+        } else
+            statement(s); // one huge expression: nothing to split
+    }
+
+    private void branch(Statement s) { // a branch or loop body of a statement too large to stay whole
+        int bytes = size(s);
+        if (bytes >= LIMIT)
+            emit(s);
+        else if (bytes > 0)
+            call(Collections.singletonList(s));
+    }
+
+    private void call(List<Statement> ss) { // call a new part that runs ss
+        if (ss.isEmpty())
+            return;
+        parts.add(ss);
+        cf.local(ALOAD, IN, 1);
+        cf.local(ALOAD, OUT, 1);
+        cf.opU2(INVOKESTATIC, cf.methodRef(CLASS_NAME, part(parts.size() - 1), DESCRIPTOR), -2);
+    }
+
+    // An upper bound on the bytes statement(s) emits; see value() and jump().
+    private static int size(Statement s) {
+        if (s instanceof Skip)
+            return 0;
+        if (s instanceof Block) {
+            int bytes = 0;
+            for (Statement m : ((Block) s).members)
+                bytes += size(m);
+            return bytes;
+        }
+        if (s instanceof Assignment) // a Variable target's PUTSTATIC takes the place of its GETSTATIC
+            return size(((Assignment) s).target) + size(((Assignment) s).source);
+        if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            return size(c.test) + 6 + size(c.thenbranch) + size(c.elsebranch);
+        }
+        if (s instanceof Loop)
+            return size(((Loop) s).test) + 6 + size(((Loop) s).body);
+        if (s instanceof Print)
+            return size(((Print) s).body) + 4;
+        if (s instanceof Scan)
+            return size(((Scan) s).var) + 11;
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    private static int size(Expression e) { // value(e); jump(e) takes at most 3 bytes more
+        if (e instanceof Value || e instanceof Variable)
+            return 3;
+        if (e instanceof ArrayRef)
+            return size(((ArrayRef) e).index) + 4;
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            return size(b.term1) + size(b.term2) + (b.op == Operator.INDEX ? 17 : arithmetic(b.op) != 0 ? 1 : 11);
+        }
+        if (e instanceof Unary)
+            return size(((Unary) e).term) + 2;
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    // ---- statements ----
+
+    private void statement(Statement s) {
+        if (s instanceof Skip)
+            return;
+        if (s instanceof Block) {
+            for (Statement m : ((Block) s).members)
+                statement(m);
+        } else if (s instanceof Assignment) {
+            Assignment a = (Assignment) s;
+            if (a.target instanceof ArrayRef) {
+                ArrayRef r = (ArrayRef) a.target;
+                arrayAndIndex(r);
+                value(a.source);
+                cf.op(arrayStore(elementType(r)), -3);
+            } else {
+                value(a.source);
+                store((Variable) a.target);
+            }
+        } else if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            Label otherwise = cf.label(), end = cf.label();
+            jump(c.test, false, otherwise);
+            statement(c.thenbranch);
+            cf.branch(GOTO, end, 0);
+            cf.place(otherwise);
+            statement(c.elsebranch);
+            cf.place(end);
+        } else if (s instanceof Loop) {
+            // the test sits after the body, so each iteration takes one branch
+            Loop l = (Loop) s;
+            Label body = cf.label(), test = cf.label();
+            cf.branch(GOTO, test, 0);
+            cf.place(body);
+            statement(l.body);
+            cf.place(test);
+            jump(l.test, true, body);
+        } else if (s instanceof Print) {
+            Expression e = ((Print) s).body;
+            cf.local(ALOAD, OUT, 1);
+            value(e);
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/io/PrintStream", "println", "(" + descriptor(typeOf(e)) + ")V"), -2);
+        } else if (s instanceof Scan) {
+            VariableRef v = ((Scan) s).var;
+            if (v instanceof ArrayRef) {
+                ArrayRef r = (ArrayRef) v;
+                arrayAndIndex(r);
+                scan(elementType(r));
+                cf.op(arrayStore(elementType(r)), -3);
+            } else {
+                scan(typeOf(v));
+                store((Variable) v);
+            }
+        } else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    private void scan(Type t) {
+        cf.local(ALOAD, IN, 1);
+        if (t == Type.INT)
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/util/Scanner", "nextInt", "()I"), 0);
+        else if (t == Type.FLOAT)
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/util/Scanner", "nextFloat", "()F"), 0);
+        else if (t == Type.BOOL)
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/util/Scanner", "nextBoolean", "()Z"), 0);
+        else if (t == Type.CHAR) {
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/util/Scanner", "next", "()Ljava/lang/String;"), 0);
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/lang/String", "trim", "()Ljava/lang/String;"), 0);
+            cf.pushInt(0);
+            cf.opU2(INVOKEVIRTUAL, cf.methodRef("java/lang/String", "charAt", "(I)C"), -1);
+        } else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    private void store(Variable v) {
+        cf.opU2(PUTSTATIC, fields.get(v), -1);
+    }
+
+    // ---- expressions ----
+
+    private void value(Expression e) {
+        if (e instanceof Value) {
+            Value v = (Value) e;
+            if (v.type() == Type.FLOAT)
+                cf.pushFloat(v.floatValue());
+            else if (v.type() == Type.CHAR)
+                cf.pushInt(v.charValue());
+            else
+                cf.pushInt(v.intValue()); // IntValue, or BoolValue as 0/1
+        } else if (e instanceof Variable) {
+            cf.opU2(GETSTATIC, fields.get(e), 1);
+        } else if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            arrayAndIndex(r);
+            cf.op(arrayLoad(elementType(r)), -1);
+        } else if (e instanceof Binary && ((Binary) e).op == Operator.INDEX) {
+            Binary b = (Binary) e;
+            value(b.term1);
+            index(((Value) b.term2).intValue());
+        } else if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            int opcode = arithmetic(b.op);
+            if (opcode == 0) { // relational or boolean: a bool from a branch
+                bool(e);
+                return;
+            }
+            value(b.term1);
+            value(b.term2);
+            cf.op(opcode, -1);
+        } else if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            value(u.term);
+            switch (u.op) {
+                case NOT:
+                    cf.pushInt(1);
+                    cf.op(IXOR, -1);
+                    break;
+                case INT_NEG: cf.op(INEG, 0); break;
+                case FLOAT_NEG: cf.op(FNEG, 0); break;
+                case I2F: cf.op(I2F, 0); break;
+                case F2I: cf.op(F2I, 0); break;
+                case I2C: cf.op(I2C, 0); break;
+                case C2I: break; // a char already is an int on the JVM stack
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + u.op);
+            }
+        } else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    // Leave the subscript on the stack if 0 <= it < size; throw
+    // ArrayIndexOutOfBoundsException(subscript) if not.
+    private void index(int size) {
+        Label bad = cf.label(), ok = cf.label();
+        cf.op(DUP, 1);
+        cf.branch(IFLT, bad, -1);
+        cf.op(DUP, 1);
+        cf.pushInt(size);
+        cf.branch(IF_ICMPLT, ok, -2);
+        cf.place(bad);
+        String exception = "java/lang/ArrayIndexOutOfBoundsException";
+        cf.opU2(NEW, cf.classRef(exception), 1);
+        cf.op(DUP_X1, 1);
+        cf.op(SWAP, 0);
+        cf.opU2(INVOKESPECIAL, cf.methodRef(exception, "<init>", "(I)V"), -2);
+        cf.op(ATHROW, -1);
+        cf.place(ok);
+        cf.adjust(1); // the subscript, as the branch to ok left it
+    }
+
+    private static int arithmetic(Operator op) {
+        switch (op) {
+            case INT_PLUS: return IADD;
+            case INT_MINUS: return ISUB;
+            case INT_TIMES: return IMUL;
+            case INT_DIV: return IDIV;
+            case FLOAT_PLUS: return FADD;
+            case FLOAT_MINUS: return FSUB;
+            case FLOAT_TIMES: return FMUL;
+            case FLOAT_DIV: return FDIV;
+            default: return 0;
+        }
+    }
+
+    private void bool(Expression e) { // push 1 if e holds, else 0
+        Label yes = cf.label(), end = cf.label();
+        jump(e, true, yes);
+        cf.pushInt(0);
+        cf.branch(GOTO, end, 0);
+        cf.place(yes);
+        cf.adjust(-1); // the 0 above was not pushed on this path
+        cf.pushInt(1);
+        cf.place(end);
+    }
+
+    // Branch to target if e evaluates to when; fall through otherwise.
+    private void jump(Expression e, boolean when, Label target) {
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            if (b.op == Operator.AND || b.op == Operator.OR) {
+                boolean and = b.op == Operator.AND;
+                if (when != and) { // the left operand alone decides: both jump to target
+                    jump(b.term1, when, target);
+                    jump(b.term2, when, target);
+                } else {
+                    Label skip = cf.label();
+                    jump(b.term1, !when, skip);
+                    jump(b.term2, when, target);
+                    cf.place(skip);
+                }
+                return;
+            }
+            int rel = relation(b.op);
+            if (rel >= 0) {
+                int r = when ? rel : 5 - rel;
+                value(b.term1);
+                value(b.term2);
+                if (typeOf(b.term1) == Type.FLOAT) {
+                    // NOTE: NaN 과의 비교가 거짓이 되도록 < 와 <= 는 FCMPG(NaN -> 1), 나머지는 FCMPL(NaN -> -1).
+                    cf.op(rel <= 1 ? FCMPG : FCMPL, -1);
+                    cf.branch(IF[r], target, -1);
+                } else
+                    cf.branch(IF_ICMP[r], target, -2);
+                return;
+            }
+        }
+        if (e instanceof Unary && ((Unary) e).op == Operator.NOT) {
+            jump(((Unary) e).term, !when, target);
+            return;
+        }
+        value(e);
+        cf.branch(when ? IFNE : IFEQ, target, -1);
+    }
+
+    private static int relation(Operator op) {
+        switch (op) {
+            case INT_LT: case FLOAT_LT: case CHAR_LT: case BOOL_LT: return 0;
+            case INT_LE: case FLOAT_LE: case CHAR_LE: case BOOL_LE: return 1;
+            case INT_EQ: case FLOAT_EQ: case CHAR_EQ: case BOOL_EQ: return 2;
+            case INT_NE: case FLOAT_NE: case CHAR_NE: case BOOL_NE: return 3;
+            case INT_GT: case FLOAT_GT: case CHAR_GT: case BOOL_GT: return 4;
+            case INT_GE: case FLOAT_GE: case CHAR_GE: case BOOL_GE: return 5;
+            default: return -1;
+        }
+    }
+
+    private void arrayAndIndex(ArrayRef r) {
+        cf.opU2(GETSTATIC, fields.get(r.array), 1);
+        value(r.index);
+    }
+
+    // ---- types ----
+
+    private Type typeOf(Expression e) {
+        if (e instanceof Value) return ((Value) e).type();
+        if (e instanceof Variable) return types.get(e);
+        if (e instanceof ArrayRef) return elementType((ArrayRef) e);
+        return e.type; // Binary and Unary are typed by TypeTransformer
+    }
+
+    private Type elementType(ArrayRef r) {
+        return types.get(r.array).elementType();
+    }
+
+    private static String descriptor(Type t) {
+        if (t == Type.INT) return "I";
+        if (t == Type.FLOAT) return "F";
+        if (t == Type.BOOL) return "Z";
+        if (t == Type.CHAR) return "C";
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    private static int newarrayType(Type t) {
+        if (t == Type.INT) return T_INT;
+        if (t == Type.FLOAT) return T_FLOAT;
+        if (t == Type.BOOL) return T_BOOLEAN;
+        return T_CHAR;
+    }
+
+    private static int arrayLoad(Type t) {
+        if (t == Type.INT) return IALOAD;
+        if (t == Type.FLOAT) return FALOAD;
+        if (t == Type.BOOL) return BALOAD;
+        return CALOAD;
+    }
+
+    private static int arrayStore(Type t) {
+        if (t == Type.INT) return IASTORE;
+        if (t == Type.FLOAT) return FASTORE;
+        if (t == Type.BOOL) return BASTORE;
+        return CASTORE;
+    }
+}
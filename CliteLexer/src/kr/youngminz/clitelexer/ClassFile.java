@@ -0,0 +1,278 @@
+package kr.youngminz.clitelexer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ClassFile {
+    // Just enough of the class file format (JVMS ch. 4) to write one class
+    // of static fields and static methods: a deduplicated constant pool, a
+    // code buffer with forward branch labels and max stack tracking. Code is
+    // emitted for one method at a time; endMethod() closes it.
+    //
+    // NOTE: 버전 49(Java 5) 클래스 파일을 만든다. 이 버전은 StackMapTable 없이 검증되므로
+    // 분기마다 스택 맵 프레임을 계산하지 않아도 된다.
+
+    static final int ACC_PUBLIC = 0x0001, ACC_PRIVATE = 0x0002, ACC_STATIC = 0x0008, ACC_SUPER = 0x0020;
+
+    // opcodes used by BytecodeGenerator
+    static final int ICONST_0 = 0x03, FCONST_0 = 0x0b, BIPUSH = 0x10, SIPUSH = 0x11,
+            LDC = 0x12, LDC_W = 0x13, ALOAD = 0x19,
+            IALOAD = 0x2e, FALOAD = 0x30, BALOAD = 0x33, CALOAD = 0x34,
+            IASTORE = 0x4f, FASTORE = 0x51, BASTORE = 0x54, CASTORE = 0x55,
+            DUP = 0x59, DUP_X1 = 0x5a, SWAP = 0x5f, IADD = 0x60, FADD = 0x62, ISUB = 0x64, FSUB = 0x66,
+            IMUL = 0x68, FMUL = 0x6a, IDIV = 0x6c, FDIV = 0x6e,
+            INEG = 0x74, FNEG = 0x76, IXOR = 0x82, I2F = 0x86, F2I = 0x8b, I2C = 0x92,
+            FCMPL = 0x95, FCMPG = 0x96,
+            IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e,
+            IF_ICMPEQ = 0x9f, IF_ICMPNE = 0xa0, IF_ICMPLT = 0xa1, IF_ICMPGE = 0xa2,
+            IF_ICMPGT = 0xa3, IF_ICMPLE = 0xa4, GOTO = 0xa7, RETURN = 0xb1,
+            GETSTATIC = 0xb2, PUTSTATIC = 0xb3, INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7,
+            INVOKESTATIC = 0xb8, NEW = 0xbb, NEWARRAY = 0xbc, ATHROW = 0xbf;
+    // NEWARRAY element types
+    static final int T_BOOLEAN = 4, T_CHAR = 5, T_FLOAT = 6, T_INT = 10;
+
+    static class Label {
+        int position = -1;
+        private final List<Integer> fixups = new ArrayList<Integer>(); // offsets of branch opcodes
+    }
+
+    private final List<byte[]> pool = new ArrayList<byte[]>();
+    private final Map<String, Integer> poolIndex = new HashMap<String, Integer>();
+    private int poolSize = 1; // entry 0 is unused
+
+    private ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private List<Label> labels = new ArrayList<Label>();
+    private int stack = 0, maxStack = 0;
+
+    private final ByteArrayOutputStream fields = new ByteArrayOutputStream(); // field_info entries
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream(); // method_info entries
+    private int fieldCount = 0, methodCount = 0;
+
+    // ---- constant pool ----
+
+    private int constant(String key, byte[] entry) {
+        Integer i = poolIndex.get(key);
+        if (i == null) {
+            i = poolSize++;
+            pool.add(entry);
+            poolIndex.put(key, i);
+        }
+        return i;
+    }
+
+    int utf8(String s) {
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(b);
+        try {
+            out.writeByte(1);
+            out.writeUTF(s);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return constant("U" + s, b.toByteArray());
+    }
+
+    int classRef(String internalName) {
+        return constant("C" + internalName, u1u2(7, utf8(internalName)));
+    }
+
+    int intConstant(int v) {
+        return constant("I" + v, new byte[]{3, (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v});
+    }
+
+    int floatConstant(float f) {
+        int v = Float.floatToIntBits(f);
+        return constant("F" + v, new byte[]{4, (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v});
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int n = utf8(name), d = utf8(descriptor);
+        return constant("N" + name + ":" + descriptor, u1u2u2(12, n, d));
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        int c = classRef(owner), nt = nameAndType(name, descriptor);
+        return constant("R" + owner + "." + name + ":" + descriptor, u1u2u2(9, c, nt));
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        int c = classRef(owner), nt = nameAndType(name, descriptor);
+        return constant("M" + owner + "." + name + descriptor, u1u2u2(10, c, nt));
+    }
+
+    private static byte[] u1u2(int tag, int a) {
+        return new byte[]{(byte) tag, (byte) (a >>> 8), (byte) a};
+    }
+
+    private static byte[] u1u2u2(int tag, int a, int b) {
+        return new byte[]{(byte) tag, (byte) (a >>> 8), (byte) a, (byte) (b >>> 8), (byte) b};
+    }
+
+    // ---- code ----
+
+    // Emit an opcode that changes the operand stack depth by delta.
+    void op(int opcode, int delta) {
+        code.write(opcode);
+        adjust(delta);
+    }
+
+    void opU1(int opcode, int operand, int delta) {
+        code.write(opcode);
+        code.write(operand);
+        adjust(delta);
+    }
+
+    void opU2(int opcode, int operand, int delta) {
+        code.write(opcode);
+        code.write(operand >>> 8);
+        code.write(operand);
+        adjust(delta);
+    }
+
+    void adjust(int delta) { // also used where control flow merges with a different depth
+        stack += delta;
+        if (stack > maxStack)
+            maxStack = stack;
+    }
+
+    void pushInt(int v) {
+        if (v >= -1 && v <= 5)
+            op(ICONST_0 + v, 1);
+        else if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE)
+            opU1(BIPUSH, v & 0xff, 1);
+        else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE)
+            opU2(SIPUSH, v & 0xffff, 1);
+        else
+            ldc(intConstant(v));
+    }
+
+    void pushFloat(float f) {
+        if (f == 0.0f && Float.floatToIntBits(f) == 0 || f == 1.0f || f == 2.0f)
+            op(FCONST_0 + (int) f, 1);
+        else
+            ldc(floatConstant(f));
+    }
+
+    private void ldc(int index) {
+        if (index <= 0xff)
+            opU1(LDC, index, 1);
+        else
+            opU2(LDC_W, index, 1);
+    }
+
+    void local(int opcode, int slot, int delta) { // xLOAD / xSTORE of a parameter
+        if (slot > 0xff)
+            throw new IllegalArgumentException("too many variables for one method");
+        opU1(opcode, slot, delta);
+    }
+
+    void branch(int opcode, Label target, int delta) {
+        int at = code.size();
+        code.write(opcode);
+        code.write(0);
+        code.write(0);
+        adjust(delta);
+        target.fixups.add(at);
+    }
+
+    Label label() {
+        Label l = new Label();
+        labels.add(l);
+        return l;
+    }
+
+    void place(Label l) {
+        l.position = code.size();
+    }
+
+    int size() { // bytes of code in the current method so far
+        return code.size();
+    }
+
+    // ---- class file ----
+
+    void field(int access, String name, String descriptor) {
+        DataOutputStream out = new DataOutputStream(fields);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0); // attributes
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        fieldCount++;
+    }
+
+    // Close the method whose code was emitted since the last endMethod().
+    void endMethod(int access, String name, String descriptor, int maxLocals) {
+        byte[] body = code.toByteArray();
+        for (Label l : labels)
+            for (int at : l.fixups) {
+                int offset = l.position - at;
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+                    throw new IllegalArgumentException("program too large for one method");
+                body[at + 1] = (byte) (offset >>> 8);
+                body[at + 2] = (byte) offset;
+            }
+        if (body.length > 0xffff)
+            throw new IllegalArgumentException("program too large for one method");
+
+        DataOutputStream out = new DataOutputStream(methods);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1); // attributes: Code
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + body.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // code attributes
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        methodCount++;
+        code = new ByteArrayOutputStream();
+        labels = new ArrayList<Label>();
+        stack = 0;
+        maxStack = 0;
+    }
+
+    // A public class extending Object with the fields and methods above.
+    byte[] toByteArray(String className) {
+        int thisClass = classRef(className);
+        int superClass = classRef("java/lang/Object");
+
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(b);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);  // minor
+            out.writeShort(49); // major: Java 5
+            out.writeShort(poolSize);
+            for (byte[] entry : pool)
+                out.write(entry);
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(fieldCount);
+            fields.writeTo(out);
+            out.writeShort(methodCount);
+            methods.writeTo(out);
+            out.writeShort(0); // class attributes
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return b.toByteArray();
+    }
+}
@@ -0,0 +1,500 @@
+package kr.youngminz.clitelexer;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+class ClosureCompiler {
+    // Turns a lowered Program (TypeTransformer output) into a tree of
+    // closures, built once, and runs it. Each closure is specialized for its
+    // operand types when it is built: an int + node adds two ints, a float <
+    // node compares two floats, and nothing is boxed into a Value. Every
+    // scalar variable is a cell the closures capture directly, and an array
+    // access captures the array itself, so no lookup happens at run time.
+    // Expressions with a constant operand get their own closure that holds
+    // the constant instead of calling a child.
+    //
+    // NOTE: BytecodeGenerator, StackVM 과 같이 모든 변수는 0 으로 시작한다.
+
+    interface Stmt { void exec(); }
+    interface IntExpr { int eval(); }     // int and char
+    interface FloatExpr { float eval(); }
+    interface BoolExpr { boolean eval(); }
+
+    private static final class IntCell { int value; }
+    private static final class FloatCell { float value; }
+    private static final class BoolCell { boolean value; }
+
+    private final Map<Variable, Object> storage = new HashMap<Variable, Object>(); // a cell, a primitive array or a PagedArray
+    private final Map<Variable, Type> types = new HashMap<Variable, Type>();
+    private final InputStream in;
+    private final PrintStream out;
+    private Scanner input;
+
+    private ClosureCompiler(InputStream in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    // Build the closure tree of p; each call gets fresh variables.
+    static Stmt compile(Program p, InputStream in, PrintStream out) {
+        ClosureCompiler c = new ClosureCompiler(in, out);
+        c.declare(p.decpart);
+        return c.statement(p.body);
+    }
+
+    private void declare(Declarations ds) {
+        for (Declaration d : ds) {
+            types.put(d.v, d.t);
+            Type t = d.t.isArray() ? d.t.elementType() : d.t;
+            if (d.t.isArray() && PagedArray.sparse(d.t.arraySize()))
+                storage.put(d.v, new PagedArray(d.t.arraySize()));
+            else if (d.t.isArray())
+                storage.put(d.v, t == Type.FLOAT ? new float[d.t.arraySize()]
+                        : t == Type.BOOL ? new boolean[d.t.arraySize()]
+                        : t == Type.CHAR ? new char[d.t.arraySize()] : new int[d.t.arraySize()]);
+            else
+                storage.put(d.v, t == Type.FLOAT ? new FloatCell() : t == Type.BOOL ? new BoolCell() : new IntCell());
+        }
+    }
+
+    // ---- statements ----
+
+    private Stmt statement(Statement s) {
+        if (s instanceof Skip)
+            return () -> { };
+        if (s instanceof Block) {
+            Block b = (Block) s;
+            final Stmt[] members = new Stmt[b.members.size()];
+            for (int i = 0; i < members.length; i++)
+                members[i] = statement(b.members.get(i));
+            if (members.length == 1)
+                return members[0];
+            return () -> {
+                for (Stmt m : members)
+                    m.exec();
+            };
+        }
+        if (s instanceof Assignment) {
+            Assignment a = (Assignment) s;
+            return store(a.target, a.source);
+        }
+        if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            final BoolExpr test = bool(c.test);
+            final Stmt then = statement(c.thenbranch), otherwise = statement(c.elsebranch);
+            return () -> {
+                if (test.eval()) then.exec();
+                else otherwise.exec();
+            };
+        }
+        if (s instanceof Loop) {
+            Loop l = (Loop) s;
+            final BoolExpr test = bool(l.test);
+            final Stmt body = statement(l.body);
+            return () -> {
+                while (test.eval())
+                    body.exec();
+            };
+        }
+        if (s instanceof Print) {
+            Expression e = ((Print) s).body;
+            Type t = typeOf(e);
+            if (t == Type.FLOAT) {
+                final FloatExpr v = real(e);
+                return () -> out.println(v.eval());
+            }
+            if (t == Type.BOOL) {
+                final BoolExpr v = bool(e);
+                return () -> out.println(v.eval());
+            }
+            final IntExpr v = integer(e);
+            if (t == Type.CHAR)
+                return () -> out.println((char) v.eval());
+            return () -> out.println(v.eval());
+        }
+        if (s instanceof Scan) {
+            VariableRef v = ((Scan) s).var;
+            Type t = typeOf(v);
+            if (t == Type.FLOAT) return store(v, (FloatExpr) () -> scanner().nextFloat());
+            if (t == Type.BOOL) return store(v, (BoolExpr) () -> scanner().nextBoolean());
+            if (t == Type.CHAR) return store(v, (IntExpr) () -> scanner().next().trim().charAt(0));
+            return store(v, (IntExpr) () -> scanner().nextInt());
+        }
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    private Scanner scanner() {
+        if (input == null)
+            input = new Scanner(in);
+        return input;
+    }
+
+    private Stmt store(VariableRef target, Expression source) {
+        Type t = typeOf(target);
+        if (t == Type.FLOAT) return store(target, real(source));
+        if (t == Type.BOOL) return store(target, bool(source));
+        return store(target, integer(source));
+    }
+
+    private Stmt store(VariableRef target, final IntExpr source) {
+        if (paged(target))
+            return pagedStore((ArrayRef) target, source);
+        if (target instanceof ArrayRef && storage.get(((ArrayRef) target).array) instanceof char[]) {
+            final ArrayRef r = (ArrayRef) target;
+            final char[] array = (char[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                array[i] = (char) source.eval();
+            };
+        }
+        if (target instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) target;
+            final int[] array = (int[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                array[i] = source.eval();
+            };
+        }
+        final IntCell cell = (IntCell) storage.get(target);
+        return () -> cell.value = source.eval();
+    }
+
+    private Stmt store(VariableRef target, final FloatExpr source) {
+        if (paged(target))
+            return pagedStore((ArrayRef) target, () -> Float.floatToRawIntBits(source.eval()));
+        if (target instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) target;
+            final float[] array = (float[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                array[i] = source.eval();
+            };
+        }
+        final FloatCell cell = (FloatCell) storage.get(target);
+        return () -> cell.value = source.eval();
+    }
+
+    private Stmt store(VariableRef target, final BoolExpr source) {
+        if (paged(target))
+            return pagedStore((ArrayRef) target, () -> source.eval() ? 1 : 0);
+        if (target instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) target;
+            final boolean[] array = (boolean[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                array[i] = source.eval();
+            };
+        }
+        final BoolCell cell = (BoolCell) storage.get(target);
+        return () -> cell.value = source.eval();
+    }
+
+    // ---- paged arrays: every element type as int bits ----
+
+    private boolean paged(Expression e) {
+        return e instanceof ArrayRef && storage.get(((ArrayRef) e).array) instanceof PagedArray;
+    }
+
+    private IntExpr pagedLoad(final ArrayRef r) {
+        final PagedArray array = (PagedArray) storage.get(r.array);
+        final IntExpr index = integer(r.index);
+        return () -> {
+            int i = index.eval();
+            if (i < 0 || i >= array.length()) outOfBounds(r, i);
+            return array.get(i);
+        };
+    }
+
+    private Stmt pagedStore(final ArrayRef r, final IntExpr bits) {
+        final PagedArray array = (PagedArray) storage.get(r.array);
+        final IntExpr index = integer(r.index);
+        return () -> {
+            int i = index.eval();
+            if (i < 0 || i >= array.length()) outOfBounds(r, i);
+            array.set(i, bits.eval());
+        };
+    }
+
+    // ---- expressions ----
+
+    // an int or char expression
+    private IntExpr integer(Expression e) {
+        if (e instanceof Value) {
+            final int k = constant(e);
+            return () -> k;
+        }
+        if (e instanceof Variable) {
+            final IntCell cell = (IntCell) storage.get(e);
+            return () -> cell.value;
+        }
+        if (paged(e))
+            return pagedLoad((ArrayRef) e);
+        if (e instanceof ArrayRef && storage.get(((ArrayRef) e).array) instanceof char[]) {
+            final ArrayRef r = (ArrayRef) e;
+            final char[] array = (char[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                return array[i];
+            };
+        }
+        if (e instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) e;
+            final int[] array = (int[]) storage.get(r.array);
+            if (r.index instanceof Value) { // a constant index is checked once, here
+                final int k = constant(r.index);
+                if (k < 0 || k >= array.length)
+                    return () -> { outOfBounds(r, k); return 0; };
+                return () -> array[k];
+            }
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                return array[i];
+            };
+        }
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            final IntExpr x = integer(b.term1);
+            if (b.term2 instanceof Value) {
+                final int k = constant(b.term2);
+                switch (b.op) {
+                    case INT_PLUS: return () -> x.eval() + k;
+                    case INT_MINUS: return () -> x.eval() - k;
+                    case INT_TIMES: return () -> x.eval() * k;
+                    case INT_DIV:
+                        if (k != 0) return () -> x.eval() / k;
+                        break;
+                    case INDEX: // k is the size of the dimension
+                        return () -> {
+                            int i = x.eval();
+                            if (i < 0 || i >= k)
+                                error("array index out of bounds: dimension of size " + k + " with index " + i);
+                            return i;
+                        };
+                    default:
+                        throw new IllegalArgumentException("should never reach here: " + b.op);
+                }
+            }
+            final IntExpr y = integer(b.term2);
+            switch (b.op) {
+                case INT_PLUS: return () -> x.eval() + y.eval();
+                case INT_MINUS: return () -> x.eval() - y.eval();
+                case INT_TIMES: return () -> x.eval() * y.eval();
+                case INT_DIV:
+                    return () -> {
+                        int n = x.eval(), d = y.eval();
+                        if (d == 0) error("division by zero");
+                        return n / d;
+                    };
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + b.op);
+            }
+        }
+        if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            switch (u.op) {
+                case INT_NEG: {
+                    final IntExpr x = integer(u.term);
+                    return () -> -x.eval();
+                }
+                case F2I: {
+                    final FloatExpr x = real(u.term);
+                    return () -> (int) x.eval();
+                }
+                case I2C: {
+                    final IntExpr x = integer(u.term);
+                    return () -> (char) x.eval();
+                }
+                case C2I:
+                    return integer(u.term); // a char already is an int
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + u.op);
+            }
+        }
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    private FloatExpr real(Expression e) {
+        if (e instanceof Value) {
+            final float k = ((Value) e).floatValue();
+            return () -> k;
+        }
+        if (e instanceof Variable) {
+            final FloatCell cell = (FloatCell) storage.get(e);
+            return () -> cell.value;
+        }
+        if (paged(e)) {
+            final IntExpr bits = pagedLoad((ArrayRef) e);
+            return () -> Float.intBitsToFloat(bits.eval());
+        }
+        if (e instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) e;
+            final float[] array = (float[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                return array[i];
+            };
+        }
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            final FloatExpr x = real(b.term1), y = real(b.term2);
+            switch (b.op) {
+                case FLOAT_PLUS: return () -> x.eval() + y.eval();
+                case FLOAT_MINUS: return () -> x.eval() - y.eval();
+                case FLOAT_TIMES: return () -> x.eval() * y.eval();
+                case FLOAT_DIV: return () -> x.eval() / y.eval();
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + b.op);
+            }
+        }
+        if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            switch (u.op) {
+                case FLOAT_NEG: {
+                    final FloatExpr x = real(u.term);
+                    return () -> -x.eval();
+                }
+                case I2F: {
+                    final IntExpr x = integer(u.term);
+                    return () -> (float) x.eval();
+                }
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + u.op);
+            }
+        }
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    private BoolExpr bool(Expression e) {
+        if (e instanceof Value) {
+            final boolean k = ((Value) e).boolValue();
+            return () -> k;
+        }
+        if (e instanceof Variable) {
+            final BoolCell cell = (BoolCell) storage.get(e);
+            return () -> cell.value;
+        }
+        if (paged(e)) {
+            final IntExpr bits = pagedLoad((ArrayRef) e);
+            return () -> bits.eval() != 0;
+        }
+        if (e instanceof ArrayRef) {
+            final ArrayRef r = (ArrayRef) e;
+            final boolean[] array = (boolean[]) storage.get(r.array);
+            final IntExpr index = integer(r.index);
+            return () -> {
+                int i = index.eval();
+                if (i < 0 || i >= array.length) outOfBounds(r, i);
+                return array[i];
+            };
+        }
+        if (e instanceof Unary) { // NOT
+            final BoolExpr x = bool(((Unary) e).term);
+            return () -> !x.eval();
+        }
+        Binary b = (Binary) e;
+        switch (b.op) {
+            case AND: {
+                final BoolExpr x = bool(b.term1), y = bool(b.term2);
+                return () -> x.eval() && y.eval();
+            }
+            case OR: {
+                final BoolExpr x = bool(b.term1), y = bool(b.term2);
+                return () -> x.eval() || y.eval();
+            }
+            case FLOAT_LT: case FLOAT_LE: case FLOAT_EQ: case FLOAT_NE: case FLOAT_GT: case FLOAT_GE:
+                return compare(b.op, real(b.term1), real(b.term2));
+            case BOOL_LT: case BOOL_LE: case BOOL_EQ: case BOOL_NE: case BOOL_GT: case BOOL_GE: {
+                // NOTE: 논리값끼리의 대소 비교는 거짓 < 참 으로 한다.
+                final BoolExpr x = bool(b.term1), y = bool(b.term2);
+                return compare(b.op, () -> x.eval() ? 1 : 0, () -> y.eval() ? 1 : 0);
+            }
+            default: // INT_ and CHAR_ relations
+                if (b.term2 instanceof Value)
+                    return compare(b.op, integer(b.term1), constant(b.term2));
+                return compare(b.op, integer(b.term1), integer(b.term2));
+        }
+    }
+
+    private static BoolExpr compare(Operator op, final IntExpr x, final IntExpr y) {
+        switch (relation(op)) {
+            case 0: return () -> x.eval() <  y.eval();
+            case 1: return () -> x.eval() <= y.eval();
+            case 2: return () -> x.eval() == y.eval();
+            case 3: return () -> x.eval() != y.eval();
+            case 4: return () -> x.eval() >  y.eval();
+            default: return () -> x.eval() >= y.eval();
+        }
+    }
+
+    private static BoolExpr compare(Operator op, final IntExpr x, final int k) {
+        switch (relation(op)) {
+            case 0: return () -> x.eval() <  k;
+            case 1: return () -> x.eval() <= k;
+            case 2: return () -> x.eval() == k;
+            case 3: return () -> x.eval() != k;
+            case 4: return () -> x.eval() >  k;
+            default: return () -> x.eval() >= k;
+        }
+    }
+
+    private static BoolExpr compare(Operator op, final FloatExpr x, final FloatExpr y) {
+        switch (relation(op)) {
+            case 0: return () -> x.eval() <  y.eval();
+            case 1: return () -> x.eval() <= y.eval();
+            case 2: return () -> x.eval() == y.eval();
+            case 3: return () -> x.eval() != y.eval();
+            case 4: return () -> x.eval() >  y.eval();
+            default: return () -> x.eval() >= y.eval();
+        }
+    }
+
+    private static int relation(Operator op) { // LT, LE, EQ, NE, GT, GE
+        switch (op) {
+            case INT_LT: case FLOAT_LT: case CHAR_LT: case BOOL_LT: return 0;
+            case INT_LE: case FLOAT_LE: case CHAR_LE: case BOOL_LE: return 1;
+            case INT_EQ: case FLOAT_EQ: case CHAR_EQ: case BOOL_EQ: return 2;
+            case INT_NE: case FLOAT_NE: case CHAR_NE: case BOOL_NE: return 3;
+            case INT_GT: case FLOAT_GT: case CHAR_GT: case BOOL_GT: return 4;
+            case INT_GE: case FLOAT_GE: case CHAR_GE: case BOOL_GE: return 5;
+            default: throw new IllegalArgumentException("should never reach here: " + op);
+        }
+    }
+
+    private static int constant(Expression e) { // an int or char literal
+        Value v = (Value) e;
+        return v.type() == Type.CHAR ? v.charValue() : v.intValue();
+    }
+
+    private Type typeOf(Expression e) {
+        if (e instanceof Value) return ((Value) e).type();
+        if (e instanceof Variable) return types.get(e);
+        if (e instanceof ArrayRef) return types.get(((ArrayRef) e).array).elementType();
+        return e.type; // Binary and Unary are typed by TypeTransformer
+    }
+
+    private static void outOfBounds(ArrayRef r, int index) {
+        error("array index out of bounds: " + r + " with index " + index);
+    }
+
+    private static void error(String msg) {
+        System.err.println("Runtime error: " + msg);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,32 @@
+package kr.youngminz.clitelexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Diagnostics {
+    // Errors collected by the Lexer, Parser and StaticTypeCheck when they are
+    // asked to recover instead of exiting, so one JVM can compile many programs.
+
+    private final List<String> errors = new ArrayList<String>();
+
+    public void report(String msg) {
+        errors.add(msg);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public List<String> errors() {
+        return errors;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String e : errors) {
+            sb.append(e);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,373 @@
+package kr.youngminz.clitelexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class FlatAst implements AstBuilder, AstView {
+    // Alternative encoding of a Program: every node is an index into parallel
+    // int arrays (kind, up to three children, sibling link, payload) instead of
+    // a separate heap object. Names and types are kept once in side tables and
+    // referenced from the payload, operators by their ordinal, so walking the
+    // tree with the accessors below allocates nothing. The Parser emits into it
+    // directly (Parser.flatProgram()); the node kinds are those of AstView.
+
+    private int[] kind = new int[64];
+    private int[] first = new int[64];
+    private int[] second = new int[64];
+    private int[] third = new int[64]; // BLOCK, ARRAY_REF: the last member or index while parsing
+    private int[] next = new int[64];  // next sibling in a Block, the declarations or the indices
+    private int[] payload = new int[64];
+    private int size = 0;
+    private int root = NONE;
+    private int firstDeclaration = NONE, lastDeclaration = NONE;
+
+    private final List<String> names = new ArrayList<String>();
+    private final Map<String, Integer> nameIndex = new HashMap<String, Integer>();
+    private final List<Type> types = new ArrayList<Type>();
+    private static final Operator[] operators = Operator.values();
+
+    // ---- building, for the Parser ----
+
+    public void declare(String name, Type t) {
+        int n = node(DECLARATION, NONE, type(t), NONE, name(name));
+        if (lastDeclaration == NONE) firstDeclaration = n;
+        else next[lastDeclaration] = n;
+        lastDeclaration = n;
+    }
+
+    public int program(int body) {
+        root = node(PROGRAM, firstDeclaration, body, NONE, 0);
+        return root;
+    }
+
+    public int skip() {
+        return node(SKIP, NONE, NONE, NONE, 0);
+    }
+
+    public int block() {
+        return node(BLOCK, NONE, NONE, NONE, 0);
+    }
+
+    public void member(int block, int statement) {
+        if (first[block] == NONE) first[block] = statement;
+        else next[third[block]] = statement;
+        third[block] = statement;
+        payload[block]++;
+    }
+
+    public int assignment(int target, int source) {
+        return node(ASSIGNMENT, target, source, NONE, 0);
+    }
+
+    public int conditional(int test, int thenbranch, int elsebranch) {
+        return node(CONDITIONAL, test, thenbranch, elsebranch, 0);
+    }
+
+    public int loop(int test, int body) {
+        return node(LOOP, test, body, NONE, 0);
+    }
+
+    public int print(int expression) {
+        return node(PRINT, expression, NONE, NONE, 0);
+    }
+
+    public int scan(int target) {
+        return node(SCAN, target, NONE, NONE, 0);
+    }
+
+    public int variable(String id) {
+        return node(VARIABLE, NONE, NONE, NONE, name(id));
+    }
+
+    public int arrayRef(int variable, int index) {
+        return node(ARRAY_REF, variable, index, index, 0);
+    }
+
+    public void index(int arrayRef, int index) {
+        next[third[arrayRef]] = index;
+        third[arrayRef] = index;
+    }
+
+    public int intLiteral(int value) {
+        return node(INT_VALUE, NONE, NONE, NONE, value);
+    }
+
+    public int floatLiteral(float value) {
+        return node(FLOAT_VALUE, NONE, NONE, NONE, Float.floatToIntBits(value));
+    }
+
+    public int charLiteral(char value) {
+        return node(CHAR_VALUE, NONE, NONE, NONE, value);
+    }
+
+    public int boolLiteral(boolean value) {
+        return node(BOOL_VALUE, NONE, NONE, NONE, value ? 1 : 0);
+    }
+
+    public int binary(Operator op, int term1, int term2) {
+        return node(BINARY, term1, term2, NONE, op.ordinal());
+    }
+
+    public int unary(Operator op, int term) {
+        return node(UNARY, term, NONE, NONE, op.ordinal());
+    }
+
+    private int node(int k, int a, int b, int c, int p) {
+        if (size == kind.length) {
+            int capacity = size * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            third = Arrays.copyOf(third, capacity);
+            next = Arrays.copyOf(next, capacity);
+            payload = Arrays.copyOf(payload, capacity);
+        }
+        kind[size] = k;
+        first[size] = a;
+        second[size] = b;
+        third[size] = c;
+        next[size] = NONE;
+        payload[size] = p;
+        return size++;
+    }
+
+    private int name(String id) {
+        Integer i = nameIndex.get(id);
+        if (i == null) {
+            i = names.size();
+            names.add(id);
+            nameIndex.put(id, i);
+        }
+        return i;
+    }
+
+    private int type(Type t) {
+        types.add(t);
+        return types.size() - 1;
+    }
+
+    // ---- view ----
+
+    int root() {
+        return root;
+    }
+
+    int size() {
+        return size;
+    }
+
+    public int kind(int n) {
+        return kind[n];
+    }
+
+    public int first(int n) {
+        return first[n];
+    }
+
+    public int second(int n) {
+        return second[n];
+    }
+
+    public int third(int n) {
+        return third[n];
+    }
+
+    public int next(int n) {
+        return next[n];
+    }
+
+    public int declarations() {
+        return first[root];
+    }
+
+    public int body() {
+        return second[root];
+    }
+
+    public int nameCount() {
+        return names.size();
+    }
+
+    public int nameId(int n) {
+        return payload[n];
+    }
+
+    public String name(int n) {
+        return names.get(payload[n]);
+    }
+
+    public Type declaredType(int n) {
+        return types.get(second[n]);
+    }
+
+    public Operator op(int n) {
+        return operators[payload[n]];
+    }
+
+    int intValue(int n) {
+        return payload[n];
+    }
+
+    float floatValue(int n) {
+        return Float.intBitsToFloat(payload[n]);
+    }
+
+    char charValue(int n) {
+        return (char) payload[n];
+    }
+
+    boolean boolValue(int n) {
+        return payload[n] != 0;
+    }
+
+    public String text(int n) {
+        StringBuilder sb = new StringBuilder();
+        emit(n, sb);
+        return sb.toString();
+    }
+
+    public void annotate(int n, Type t) {
+        // the arena is only checked and printed, so it keeps no types
+    }
+
+    // ---- code emission: the same Java text as Program.display() before type checking ----
+
+    void display() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("import java.util.Scanner;\n");
+        sb.append("class Main {\n");
+        sb.append("private static Scanner scanner = new Scanner(System.in);\n");
+        sb.append("private static boolean scan(boolean b) { return scanner.nextBoolean(); }\n");
+        sb.append("private static int scan(int i) { return scanner.nextInt(); }\n");
+        sb.append("private static char scan(char c) { return scanner.next().trim().charAt(0); }\n");
+        sb.append("private static float scan(float f) { return scanner.nextFloat(); }\n");
+        for (int d = declarations(); d != NONE; d = next[d]) {
+            Type t = declaredType(d);
+            if (t.isArray()) {
+                sb.append("static ").append(t.elementType());
+                for (int k = 0; k < t.dimensions(); k++)
+                    sb.append("[]");
+                sb.append(' ').append(name(d)).append(" = new ").append(t).append(";\n");
+            }
+            else
+                sb.append("static ").append(t).append(' ').append(name(d)).append(";\n");
+        }
+        sb.append('\n');
+        sb.append("public static void main(String[] args)\n");
+        emit(body(), sb);
+        sb.append("\n}\n");
+        System.out.print(sb);
+    }
+
+    private void test(int n, StringBuilder sb) { // BINARY and UNARY print their own parentheses
+        if (kind[n] == BINARY || kind[n] == UNARY) {
+            emit(n, sb);
+            return;
+        }
+        sb.append('(');
+        emit(n, sb);
+        sb.append(')');
+    }
+
+    void emit(int n, StringBuilder sb) {
+        switch (kind[n]) {
+            case SKIP:
+                sb.append(';');
+                break;
+            case BLOCK:
+                sb.append("{\n");
+                for (int m = first[n]; m != NONE; m = next[m]) {
+                    emit(m, sb);
+                    sb.append('\n');
+                }
+                sb.append('}');
+                break;
+            case ASSIGNMENT:
+                emit(first[n], sb);
+                sb.append(" = ");
+                emit(second[n], sb);
+                sb.append(';');
+                break;
+            case CONDITIONAL:
+                sb.append("if");
+                test(first[n], sb);
+                sb.append('\n');
+                emit(second[n], sb);
+                sb.append("\nelse\n");
+                emit(third[n], sb);
+                break;
+            case LOOP:
+                sb.append("while");
+                test(first[n], sb);
+                sb.append('\n');
+                emit(second[n], sb);
+                break;
+            case PRINT:
+                sb.append("System.out.println(");
+                emit(first[n], sb);
+                sb.append(");");
+                break;
+            case SCAN:
+                emit(first[n], sb);
+                sb.append(" = scan(");
+                emit(first[n], sb);
+                sb.append(");");
+                break;
+            case VARIABLE:
+                sb.append(name(n));
+                break;
+            case ARRAY_REF:
+                emit(first[n], sb);
+                for (int i = second[n]; i != NONE; i = next[i]) {
+                    sb.append('[');
+                    emit(i, sb);
+                    sb.append(']');
+                }
+                break;
+            case INT_VALUE:
+                sb.append(intValue(n));
+                break;
+            case FLOAT_VALUE:
+                sb.append(floatValue(n)).append('f');
+                break;
+            case CHAR_VALUE:
+                sb.append('\'');
+                if (charValue(n) == '\'' || charValue(n) == '\\')
+                    sb.append('\\');
+                sb.append(charValue(n)).append('\'');
+                break;
+            case BOOL_VALUE:
+                sb.append(boolValue(n));
+                break;
+            case BINARY:
+                // before type checking only a literal is known to be bool; see Binary.toString()
+                if (kind[first[n]] == BOOL_VALUE && op(n).RelationalOp() && op(n) != Operator.EQ && op(n) != Operator.NE) {
+                    sb.append("(Boolean.compare(");
+                    emit(first[n], sb);
+                    sb.append(", ");
+                    emit(second[n], sb);
+                    sb.append(") ").append(op(n)).append(" 0)");
+                    break;
+                }
+                sb.append('(');
+                emit(first[n], sb);
+                sb.append(' ').append(op(n)).append(' ');
+                emit(second[n], sb);
+                sb.append(')');
+                break;
+            case UNARY:
+                if (op(n).intOp() || op(n).floatOp() || op(n).charOp())
+                    sb.append("((").append(op(n)).append(") ");
+                else
+                    sb.append('(').append(op(n));
+                emit(first[n], sb);
+                sb.append(')');
+                break;
+            default:
+                throw new IllegalArgumentException("should never reach here");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package kr.youngminz.clitelexer;
+
+class GapBuffer implements CharSequence {
+    // Editable text as one char[] with a gap at the place of the last edit.
+    // An edit moves the gap to its offset, copying only the chars in
+    // between, and then widens or fills the gap, so a run of nearby edits
+    // costs time proportional to the edits rather than to the whole text.
+
+    private char[] chars;
+    private int gapStart, gapEnd; // chars[gapStart, gapEnd) is free
+
+    GapBuffer(CharSequence text) {
+        int n = text.length();
+        chars = new char[n + 64];
+        for (int i = 0; i < n; i++)
+            chars[i] = text.charAt(i);
+        gapStart = n;
+        gapEnd = chars.length;
+    }
+
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    public char charAt(int i) {
+        return i < gapStart ? chars[i] : chars[i + gapEnd - gapStart];
+    }
+
+    public CharSequence subSequence(int start, int end) {
+        char[] out = new char[end - start];
+        for (int i = start; i < end; i++)
+            out[i - start] = charAt(i);
+        return new String(out);
+    }
+
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    // Replace removed chars at offset with inserted.
+    void replace(int offset, int removed, CharSequence inserted) {
+        moveGap(offset);
+        gapEnd += removed;
+        int n = inserted.length();
+        if (gapEnd - gapStart < n)
+            grow(n);
+        for (int i = 0; i < n; i++)
+            chars[gapStart++] = inserted.charAt(i);
+    }
+
+    private void moveGap(int offset) {
+        if (offset < gapStart) {
+            int n = gapStart - offset;
+            System.arraycopy(chars, offset, chars, gapEnd - n, n);
+            gapStart = offset;
+            gapEnd -= n;
+        } else if (offset > gapStart) {
+            int n = offset - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, n);
+            gapStart = offset;
+            gapEnd += n;
+        }
+    }
+
+    private void grow(int needed) {
+        int capacity = Math.max(chars.length * 2, length() + needed + 64);
+        char[] bigger = new char[capacity];
+        int tail = chars.length - gapEnd;
+        System.arraycopy(chars, 0, bigger, 0, gapStart);
+        System.arraycopy(chars, gapEnd, bigger, capacity - tail, tail);
+        gapEnd = capacity - tail;
+        chars = bigger;
+    }
+}
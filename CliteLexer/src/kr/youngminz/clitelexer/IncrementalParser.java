@@ -0,0 +1,308 @@
+package kr.youngminz.clitelexer;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+class IncrementalParser {
+    // Keeps a source text, its TokenBuffer and its Program between edits.
+    // An edit re-lexes only the tokens it damaged and re-parses only the
+    // innermost statement (or run of Block members) covering them; every
+    // other Statement object of the previous Program is reused as is.
+    // The text is a GapBuffer and the TokenBuffer keeps a gap at the damaged
+    // tokens, so neither is copied: an edit costs time proportional to the
+    // edit and the distance from the previous one, not to the file size.
+    //
+    // NOTE: 파서는 결정적이고 한 토큰만 미리 본다. 그래서 시작 위치 s 이전의 토큰이 그대로이고,
+    // 다시 파싱한 문장이 옛 끝 위치 e (>= 손상 범위의 끝)를 옮긴 자리에서 정확히 끝나면,
+    // 전체를 다시 파싱한 결과와 같다. 끝이 맞지 않으면 부모 문장으로 올라가서 다시 한다.
+
+    private final GapBuffer text;
+    private final TokenBuffer tokens;
+    private Program program;
+    // Statement --> {start, width} in tokens; start is relative to the parent statement's start
+    private final IdentityHashMap<Statement, int[]> spans = new IdentityHashMap<Statement, int[]>();
+
+    // state of the edit being applied
+    private int shift;      // change in token count
+    private int from, to;   // damaged token range [from, to) in the old TokenBuffer
+
+    IncrementalParser(CharSequence source) {
+        text = new GapBuffer(source);
+        tokens = new TokenBuffer(text); // reads the live text, so its starts follow edits
+        TokenBuffer lexed = new Lexer(CharBuffer.wrap(text)).tokenize();
+        tokens.append(lexed, 0, lexed.size());
+        parseAll();
+    }
+
+    Program program() {
+        return program;
+    }
+
+    TokenBuffer tokens() {
+        return tokens;
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    // Replace removed chars at offset with inserted and bring tokens and Program up to date.
+    Program edit(int offset, int removed, String inserted) {
+        relex(offset, removed, inserted);
+        if (shift == 0 && from == to)
+            return program; // only whitespace or comments changed
+
+        int[] body = spans.get(program.body);
+        int close = body[0] + body[1] - 1; // index of the body's closing }
+        if (from <= body[0] || to > close || !updateMembers(program.body, body[0]))
+            parseAll();
+        else
+            body[1] += shift;
+        return program;
+    }
+
+    private void relex(int offset, int removed, String inserted) {
+        from = firstTokenEndingAtOrAfter(offset);
+        // NOTE: 토큰이 끝난 자리에서 렉서는 항상 시작 상태이므로 거기서부터 다시 읽으면 된다.
+        int restart = from == 0 ? 0 : tokens.start(from - 1) + tokens.length(from - 1);
+        // NOTE: 간격(gap)을 from 앞에 두고 나서 글을 고친다. 그러면 from 부터의 옛 토큰들은
+        // 글 끝을 기준으로 자리를 지키므로, 편집 뒤의 토큰은 이미 새 위치에 있다.
+        tokens.moveGap(from);
+        text.replace(offset, removed, inserted);
+        CharBuffer rest = CharBuffer.wrap(text);
+        rest.position(restart);
+        Lexer lexer = new Lexer(rest);
+
+        TokenBuffer fresh = new TokenBuffer(text);
+        int editEnd = offset + inserted.length();
+        int size = tokens.size();
+        to = from;
+        while (true) {
+            TokenType t = lexer.scanType();
+            int start = restart + lexer.tokenStart();
+            if (start >= editEnd) { // past the edit: resynchronize with an old token at the same place
+                // an old token at or after editEnd now lay wholly after the removed text
+                while (to < size && tokens.start(to) < start)
+                    to++;
+                if (to < size && tokens.start(to) == start)
+                    break;
+            }
+            fresh.add(t, start, lexer.tokenEnd() - lexer.tokenStart());
+            if (t == TokenType.Eof) {
+                to = size;
+                break;
+            }
+        }
+
+        tokens.replace(from, to, fresh);
+        shift = fresh.size() - (to - from);
+    }
+
+    private int firstTokenEndingAtOrAfter(int offset) {
+        int lo = 0, hi = tokens.size() - 1; // Eof always qualifies
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokens.start(mid) + tokens.length(mid) >= offset)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    // Re-parse the damaged members of b, whose { is at old index abs.
+    // Returns false if the damage changed where b ends.
+    private boolean updateMembers(Block b, int abs) {
+        List<Statement> members = b.members;
+        int close = abs + spans.get(b)[1] - 1;
+
+        // damage inside a single member: try to keep the repair inside it
+        for (int k = 0; k < members.size(); k++) {
+            Statement m = members.get(k);
+            int[] span = spans.get(m);
+            int start = abs + span[0];
+            // NOTE: 블록은 } 를 보면 멤버를 더 읽지 않는다. 그 자리가 } 가 되었으면 아래에서 다시 맞춘다.
+            if (start <= from && to <= start + span[1] && tokens.type(start) != TokenType.RightBrace) {
+                Statement repaired = update(m, start);
+                if (repaired != null) {
+                    members.set(k, repaired);
+                    shiftFollowing(members, k + 1);
+                    return true;
+                }
+                break;
+            }
+            if (start > from)
+                break;
+        }
+
+        // otherwise re-parse members from the first one touching the damage
+        // until the parser is back on an old member boundary past the damage
+        int first = 0;
+        while (first < members.size() && abs + rel(members.get(first)) + width(members.get(first)) <= from)
+            first++;
+        int pos = first < members.size() ? abs + rel(members.get(first)) : Math.min(from, close);
+
+        Parser parser = new Parser(new TokenCursor(tokens, pos), spans);
+        List<Statement> parsed = new ArrayList<Statement>();
+        int last = first; // old members [first, last) are replaced
+        while (true) {
+            int at = parser.position();
+            if (at >= to + shift) {
+                int old = at - shift;
+                while (last < members.size() && abs + rel(members.get(last)) < old)
+                    last++;
+                if (last < members.size() && abs + rel(members.get(last)) == old)
+                    break;
+                if (old == close) {
+                    last = members.size();
+                    break;
+                }
+                if (old > close)
+                    return abandon(parsed);
+            }
+            if (parser.current() == TokenType.RightBrace || parser.current() == TokenType.Eof)
+                return abandon(parsed); // the edit closed b early
+            parsed.add(parser.nextStatement());
+        }
+
+        for (int k = first; k < last; k++)
+            forget(members.get(k));
+        for (Statement s : parsed)
+            relativize(s, abs);
+        members.subList(first, last).clear();
+        members.addAll(first, parsed);
+        shiftFollowing(members, first + parsed.size());
+        return true;
+    }
+
+    // Bring statement s, starting at old index abs, up to date with the damage.
+    // Returns s or its replacement, or null if the caller has to re-parse.
+    private Statement update(Statement s, int abs) {
+        int[] span = spans.get(s);
+        if (s instanceof Block) {
+            Block b = (Block) s;
+            if (from > abs && to < abs + span[1] && updateMembers(b, abs)) {
+                span[1] += shift;
+                return b;
+            }
+        } else if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            Statement repaired = updateChild(c.thenbranch, abs);
+            if (repaired != null) {
+                c.thenbranch = repaired;
+                shiftAfter(c.elsebranch);
+                span[1] += shift;
+                return c;
+            }
+            repaired = updateChild(c.elsebranch, abs);
+            if (repaired != null) {
+                c.elsebranch = repaired;
+                span[1] += shift;
+                return c;
+            }
+        } else if (s instanceof Loop) {
+            Loop l = (Loop) s;
+            Statement repaired = updateChild(l.body, abs);
+            if (repaired != null) {
+                l.body = repaired;
+                span[1] += shift;
+                return l;
+            }
+        }
+        return reparse(s, abs);
+    }
+
+    private Statement updateChild(Statement child, int parentAbs) {
+        int[] span = spans.get(child);
+        if (span == null) // the implicit Skip of an if without else
+            return null;
+        int start = parentAbs + span[0];
+        if (start > from || to > start + span[1])
+            return null;
+        return update(child, start);
+    }
+
+    private Statement reparse(Statement s, int abs) {
+        int[] span = spans.get(s);
+        int end = abs + span[1];
+        if (end < to)
+            return null;
+        Parser parser = new Parser(new TokenCursor(tokens, abs), spans);
+        Statement fresh = parser.nextStatement();
+        if (parser.position() != end + shift) {
+            forget(fresh);
+            return null;
+        }
+        relativize(fresh, abs);
+        spans.get(fresh)[0] = span[0]; // same place within the parent as s
+        forget(s);
+        return fresh;
+    }
+
+    private boolean abandon(List<Statement> parsed) {
+        for (Statement s : parsed)
+            forget(s);
+        return false;
+    }
+
+    private void shiftFollowing(List<Statement> members, int k) {
+        for (; k < members.size(); k++) {
+            int[] span = spans.get(members.get(k));
+            if (span != null)
+                span[0] += shift;
+        }
+    }
+
+    private void shiftAfter(Statement s) {
+        int[] span = spans.get(s);
+        if (span != null)
+            span[0] += shift;
+    }
+
+    private void parseAll() {
+        spans.clear();
+        program = new Parser(new TokenCursor(tokens), spans).program();
+        relativize(program.body, 0);
+    }
+
+    // Parser records absolute spans; store them relative to the parent's start instead,
+    // so an edit only has to move the spans that follow it within each enclosing statement.
+    private void relativize(Statement s, int parentAbs) {
+        int[] span = spans.get(s);
+        if (span == null)
+            return;
+        int abs = span[0];
+        span[0] = abs - parentAbs;
+        for (Statement child : children(s))
+            relativize(child, abs);
+    }
+
+    private void forget(Statement s) {
+        if (spans.remove(s) == null)
+            return;
+        for (Statement child : children(s))
+            forget(child);
+    }
+
+    private int rel(Statement s) {
+        return spans.get(s)[0];
+    }
+
+    private int width(Statement s) {
+        return spans.get(s)[1];
+    }
+
+    private static List<Statement> children(Statement s) {
+        List<Statement> result = new ArrayList<Statement>();
+        if (s instanceof Block)
+            result.addAll(((Block) s).members);
+        else if (s instanceof Conditional) {
+            result.add(((Conditional) s).thenbranch);
+            result.add(((Conditional) s).elsebranch);
+        } else if (s instanceof Loop)
+            result.add(((Loop) s).body);
+        return result;
+    }
+}
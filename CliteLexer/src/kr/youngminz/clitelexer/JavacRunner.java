@@ -0,0 +1,168 @@
+package kr.youngminz.clitelexer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+class JavacRunner {
+    // Runs the Java text of Program.source() without touching the disk: the
+    // source is handed to javax.tools.JavaCompiler as an in-memory file, the
+    // class files it writes are kept in byte arrays, and a fresh ClassLoader
+    // defines them for each run. Compiled classes are cached by the SHA-256
+    // of the source, so running an unchanged program again skips javac.
+    //
+    // Arrays in the Java text are plain Java arrays made whole at class
+    // initialization; PagedArray is not used here. 정수: 배열[100000000] needs
+    // 400 MB of heap under -javac even if the program touches a few elements,
+    // and fails with OutOfMemoryError in a smaller heap (-Xmx64m), where
+    // -run, -vm and -closure page it.
+    //
+    // NOTE: 캐시에는 Class 가 아니라 바이트 코드를 둔다. 실행마다 새 ClassLoader 로
+    // 정의해야 static 변수와 scanner 가 처음 상태로 시작한다.
+
+    static final String CLASS_NAME = "Main";
+
+    private static final Map<String, Map<String, byte[]>> cache =
+            new ConcurrentHashMap<String, Map<String, byte[]>>();
+
+    // Compile (or find in the cache) and run the Java text of a type checked Program.
+    static void run(Program p) {
+        Map<String, byte[]> classes = compile(p.source());
+        try {
+            Method main = new Loader(classes).loadClass(CLASS_NAME).getMethod("main", String[].class);
+            main.setAccessible(true); // the generated class Main is not public
+            BytecodeGenerator.invoke(main, (Object) new String[0]);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Map<String, byte[]> compile(String source) {
+        String key = sha256(source);
+        Map<String, byte[]> classes = cache.get(key);
+        if (classes != null)
+            return classes;
+
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null)
+            error("no Java compiler in this runtime (javax.tools needs a JDK)");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        MemoryFileManager files = new MemoryFileManager(
+                javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8));
+        boolean ok = javac.getTask(null, files, diagnostics, Arrays.asList("-proc:none", "-g:none"), null,
+                Collections.singletonList(new Source(CLASS_NAME, source))).call();
+        if (!ok) {
+            StringBuilder sb = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics())
+                sb.append("\n  line ").append(d.getLineNumber()).append(": ").append(d.getMessage(null));
+            error("javac rejected the generated source:" + sb);
+        }
+        cache.put(key, files.classes);
+        return files.classes;
+    }
+
+    private static String sha256(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest)
+                sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void error(String msg) {
+        System.err.println("Error: " + msg);
+        System.exit(1);
+    }
+
+    // a compilation unit whose text is a String
+    private static class Source extends SimpleJavaFileObject {
+        private final String text;
+
+        Source(String className, String text) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.text = text;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return text;
+        }
+    }
+
+    // a class file that javac writes into a byte array
+    private static class ClassOutput extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> classes;
+
+        ClassOutput(String className, Map<String, byte[]> classes) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.classes = classes;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    classes.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        final Map<String, byte[]> classes = new HashMap<String, byte[]>();
+
+        MemoryFileManager(StandardJavaFileManager standard) {
+            super(standard);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassOutput(className, classes);
+        }
+    }
+
+    // defines the compiled classes of one program; everything else comes from the parent
+    private static class Loader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        Loader(Map<String, byte[]> classes) {
+            super(JavacRunner.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null)
+                throw new ClassNotFoundException(name);
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -1,9 +1,64 @@
 package kr.youngminz.clitelexer;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 public class Main {
+    // NOTE: -parallel 이나 -pipelined 를 맨 앞에 주면 한 파일을 읽는 모드들이 그 앞단(lexer)을 쓴다.
+    // 여러 파일을 검사하는 모드는 파일마다 따로 Diagnostics 를 쓰므로 보통 Lexer 로 읽는다.
+    private static String frontEnd = "";
+
     public static void main(String args[]) {
-        Parser parser = new Parser(new Lexer(args[0]));
-        Program prog = parser.program();
+        if (args[0].equals("-parallel") || args[0].equals("-pipelined")) {
+            // -parallel: lex newline-aligned chunks on the common ForkJoinPool into a TokenBuffer
+            // -pipelined: lex on a producer thread while the parser runs
+            frontEnd = args[0];
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        if (args[0].equals("-run")) { // run the program in this JVM instead of printing Java source
+            run(args[1]);
+            return;
+        }
+        if (args[0].equals("-jvm")) { // compile the program to bytecode and run it in this JVM
+            Program prog = lower(args[1]);
+            BytecodeGenerator.run(prog, System.in, System.out);
+            return;
+        }
+        if (args[0].equals("-vm")) { // compile the program to StackVM code and run it
+            VmCompiler.compile(lower(args[1])).run(System.in, System.out);
+            return;
+        }
+        if (args[0].equals("-closure")) { // compile the program to a tree of closures and run it
+            ClosureCompiler.compile(lower(args[1]), System.in, System.out).exec();
+            return;
+        }
+        if (args[0].equals("-javac")) { // compile the Java source in memory and run it; repeated files reuse the class
+            for (int i = 1; i < args.length; i++)
+                JavacRunner.run(check(args[i]));
+            return;
+        }
+        if (args.length > 1) { // several programs: check them all in this JVM, in parallel
+            List<ForkJoinTask<Diagnostics>> results = new ArrayList<ForkJoinTask<Diagnostics>>();
+            for (String fileName : args)
+                results.add(ForkJoinPool.commonPool().submit(() -> compile(fileName)));
+            int failed = 0;
+            for (int i = 0; i < args.length; i++) {
+                Diagnostics d = results.get(i).join();
+                if (d.hasErrors()) {
+                    failed++;
+                    System.err.print(args[i] + ":\n" + d);
+                }
+            }
+            System.out.println(args.length - failed + "/" + args.length + " programs passed");
+            return;
+        }
+
+        Program prog = parse(args[0]);
         System.out.println("---------------------------------------------------");
         prog.display(); // display abstract syntax tree
 
@@ -16,4 +71,60 @@ public class Main {
         System.out.println(map);
     }
 
+    // Check, lower and interpret one file; reading its input from System.in.
+    static void run(String fileName) {
+        new Semantics().M(lower(fileName));
+    }
+
+    // Parse one file with the front end chosen on the command line, exiting on the first error.
+    static Program parse(String fileName) {
+        if (frontEnd.equals("-parallel")) {
+            CharBuffer source = null;
+            try {
+                source = Lexer.read(fileName);
+            } catch (IOException e) {
+                System.err.println(e);
+                System.exit(1);
+            }
+            return new Parser(new TokenCursor(ParallelLexer.tokenize(source))).program();
+        }
+        if (frontEnd.equals("-pipelined")) {
+            try (PipelinedTokenStream tokens = new PipelinedTokenStream(Lexer.mapped(fileName))) {
+                return new Parser(tokens).program();
+            }
+        }
+        return new Parser(Lexer.mapped(fileName)).program();
+    }
+
+    // Parse and type check one file, exiting on the first error.
+    static Program check(String fileName) {
+        Program prog = parse(fileName);
+        StaticTypeCheck.V(prog);
+        return prog;
+    }
+
+    // Parse, type check and lower one file.
+    static Program lower(String fileName) {
+        Program prog = check(fileName);
+        return TypeTransformer.T(prog, StaticTypeCheck.typing(prog.decpart));
+    }
+
+    // Lex, parse and type check one file, collecting every error instead of exiting.
+    // NOTE: 오류만 모으면 되므로 Statement 객체 대신 FlatAst 로 파싱해서 검사한다.
+    static Diagnostics compile(String fileName) {
+        Diagnostics d = new Diagnostics();
+        Lexer lexer;
+        try {
+            lexer = new Lexer(Lexer.read(fileName));
+        } catch (IOException e) {
+            d.report(e.toString());
+            return d;
+        }
+        lexer.setDiagnostics(d);
+        FlatAst ast = new Parser(lexer, d).flatProgram();
+        if (!d.hasErrors())
+            StaticTypeCheck.validate(ast, d);
+        return d;
+    }
+
 }
@@ -0,0 +1,54 @@
+package kr.youngminz.clitelexer;
+
+class PagedArray {
+    // Storage for a very large declared array: a fixed length of int
+    // elements (a float as its raw bits, a bool as 0/1, a char as itself)
+    // split into pages that are allocated on the first write to them. An
+    // element of a page never written reads as 0, the default of its type,
+    // so a program that declares 배열[100000000] and touches a few thousand
+    // elements costs a few pages plus the page directory.
+    //
+    // Semantics (ArrayValue), StackVM and ClosureCompiler use it; -jvm and
+    // -javac still allocate the whole array (see BytecodeGenerator and
+    // JavacRunner).
+    //
+    // NOTE: 선언된 크기가 SPARSE_THRESHOLD 이상인 배열만 페이지로 나눈다 (sparse()).
+    // 그보다 작은 배열은 보통의 기본형 배열이 더 빠르고 작다.
+
+    static final int PAGE_BITS = 12;
+    static final int PAGE_SIZE = 1 << PAGE_BITS; // elements per page
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    static final int SPARSE_THRESHOLD = 1 << 20;
+
+    private final int length;
+    private final int[][] pages;
+
+    PagedArray(int length) {
+        this.length = length;
+        pages = new int[(length + PAGE_MASK) >>> PAGE_BITS][];
+    }
+
+    // Whether an array of this declared size should be paged rather than dense.
+    static boolean sparse(int length) {
+        return length >= SPARSE_THRESHOLD;
+    }
+
+    int length() {
+        return length;
+    }
+
+    int get(int i) { // callers check the bounds
+        int[] page = pages[i >>> PAGE_BITS];
+        return page == null ? 0 : page[i & PAGE_MASK];
+    }
+
+    void set(int i, int v) {
+        int[] page = pages[i >>> PAGE_BITS];
+        if (page == null) {
+            if (v == 0) // the page would read 0 anyway
+                return;
+            page = pages[i >>> PAGE_BITS] = new int[PAGE_SIZE];
+        }
+        page[i & PAGE_MASK] = v;
+    }
+}
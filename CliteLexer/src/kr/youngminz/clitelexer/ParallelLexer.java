@@ -0,0 +1,53 @@
+package kr.youngminz.clitelexer;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class ParallelLexer {
+    // Lexes a large buffered source in newline-aligned chunks on a ForkJoinPool
+    // and stitches the per-chunk TokenBuffers into one stream for the Parser.
+
+    // NOTE: Clite 의 주석(// ...)과 문자 리터럴('c')은 줄을 넘지 않는다.
+    // 그래서 줄 경계에서 자른 조각은 서로 독립적으로 lex 할 수 있다.
+    private static final int CHUNK = 1 << 20; // chars per chunk
+
+    public static TokenBuffer tokenize(CharBuffer src) {
+        return tokenize(src, ForkJoinPool.commonPool(), CHUNK);
+    }
+
+    public static TokenBuffer tokenize(CharBuffer src, ForkJoinPool pool, int chunkSize) {
+        CharBuffer text = src.slice();
+        int limit = text.limit();
+
+        List<Integer> bounds = new ArrayList<Integer>();
+        List<ForkJoinTask<TokenBuffer>> parts = new ArrayList<ForkJoinTask<TokenBuffer>>();
+        int from = 0;
+        while (from < limit) {
+            int to = Math.min(from + chunkSize, limit);
+            while (to < limit && text.get(to - 1) != '\n')
+                to++;
+            final CharBuffer chunk = slice(text, from, to);
+            bounds.add(from);
+            parts.add(pool.submit(() -> new Lexer(chunk).tokenize()));
+            from = to;
+        }
+
+        TokenBuffer tokens = new TokenBuffer(text);
+        for (int i = 0; i < parts.size(); i++) {
+            TokenBuffer part = parts.get(i).join();
+            tokens.append(part, bounds.get(i), part.size() - 1); // drop the chunk's Eof
+        }
+        tokens.add(TokenType.Eof, limit, 0);
+        return tokens;
+    }
+
+    private static CharBuffer slice(CharBuffer text, int from, int to) {
+        CharBuffer chunk = text.duplicate();
+        chunk.limit(to);
+        chunk.position(from);
+        return chunk.slice();
+    }
+}
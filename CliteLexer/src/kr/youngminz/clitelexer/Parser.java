@@ -1,39 +1,109 @@
 package kr.youngminz.clitelexer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 class Parser {
     // Recursive descent parser that inputs a C++Lite program and
     // generates its abstract syntax.  Each method corresponds to
     // a concrete syntax grammar rule, which appears as a comment
     // at the beginning of the method.
+    // NOTE: 각 메소드는 노드를 ast 에 만들고 그 handle 을 돌려준다. program() 은 힙 객체로,
+    // flatProgram() 은 FlatAst 로 만든다.
 
-    private Token token;          // current token from the input stream
-    private Lexer lexer;
+    private TokenType type;       // type of the current token
+    private Token token;          // current token when reading a TokenStream
+    private TokenStream lexer;
+    private TokenCursor cursor;   // non-null when parsing a TokenBuffer; then no Token is made
+    private Map<Statement, int[]> spans; // Statement --> {first token index, token count}
+    private Diagnostics diagnostics; // non-null: report syntax errors and recover
+    private ProgramBuilder heap = new ProgramBuilder(); // null after flatProgram()
+    private AstBuilder ast = heap;
 
-    Parser(Lexer ts) { // Open the C++Lite source program
+    // Thrown by error() in diagnostics mode to unwind to the enclosing statement or declaration.
+    private static class SyntaxError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SyntaxError() {
+            super(null, null, false, false);
+        }
+    }
+
+    Parser(TokenStream ts) { // Open the C++Lite source program
         lexer = ts;                          // as a token stream, and
-        token = lexer.next();            // retrieve its first Token
+        advance();                       // retrieve its first Token
     }
 
-    private String match(TokenType t) { // * return the string of a token if it matches with t *
-        String value = token.value();
-        if (token.type().equals(t))
+    Parser(TokenCursor tc) { // read a TokenBuffer by type; text is sliced only for names and literals
+        cursor = tc;
+        advance();
+    }
+
+    Parser(TokenStream ts, Diagnostics d) { // collect syntax errors in d instead of exiting
+        this(ts);
+        diagnostics = d;
+    }
+
+    Parser(TokenCursor tc, Map<Statement, int[]> sp) { // also record the token span of every statement
+        this(tc);
+        spans = sp;
+    }
+
+    int position() { // index of the current token in the TokenBuffer
+        return cursor == null ? -1 : cursor.index() - 1;
+    }
+
+    TokenType current() {
+        return type;
+    }
+
+    private void advance() {
+        if (cursor != null) {
+            type = cursor.advance();
+        } else {
             token = lexer.next();
+            type = token.type();
+        }
+    }
+
+    private String text() { // spelling of the current token
+        return cursor != null ? cursor.text() : token.value();
+    }
+
+    private Token saw() { // the current token, for error messages
+        return cursor != null ? cursor.token() : token;
+    }
+
+    Statement nextStatement() { // used by IncrementalParser to re-parse one statement
+        return heap.statementAt(statement());
+    }
+
+    private int record(int s, int start) {
+        if (spans != null)
+            spans.put(heap.statementAt(s), new int[]{start, position() - start});
+        return s;
+    }
+
+    private String match(TokenType t) { // * return the string of a token if it matches with t *
+        String value = text();
+        if (type.equals(t))
+            advance();
         else
             error(t);
         return value;
     }
 
     private void error(TokenType tok) {
-        System.err.println("Syntax error: expecting: " + tok + "; saw: " + token);
-        for (StackTraceElement ste : Thread.currentThread().getStackTrace()) {
-            System.out.println(ste);
-        }
-        System.exit(1);
+        error(tok.toString());
     }
 
     private void error(String tok) {
-        System.err.println("Syntax error: expecting: " + tok + "; saw: " + token);
+        if (diagnostics != null) {
+            diagnostics.report("Syntax error: expecting: " + tok + "; saw: " + saw());
+            throw new SyntaxError();
+        }
+        System.err.println("Syntax error: expecting: " + tok + "; saw: " + saw());
         for (StackTraceElement ste : Thread.currentThread().getStackTrace()) {
             System.out.println(ste);
         }
@@ -41,86 +111,131 @@ class Parser {
     }
 
     public Program program() {
-        match(TokenType.Decl);
-        match(TokenType.LeftBrace);
+        return heap.programAt(parse());
+    }
 
-        Declarations decls = declarations();
+    FlatAst flatProgram() { // parse into a FlatAst arena instead of heap objects
+        FlatAst arena = new FlatAst();
+        ast = arena;
+        heap = null;
+        parse();
+        return arena;
+    }
 
-        match(TokenType.RightBrace);
-        match(TokenType.Main);
-        match(TokenType.LeftBrace);
+    private int parse() {
+        int statements = ast.block();
+        int bodyStart = -1;
+        try {
+            match(TokenType.Decl);
+            match(TokenType.LeftBrace);
+
+            declarations();
+
+            match(TokenType.RightBrace);
+            match(TokenType.Main);
+            bodyStart = position();
+            match(TokenType.LeftBrace);
 
-        Block statements = new Block();
-        while (!token.type().equals(TokenType.RightBrace)) {
-            statements.members.add(statement());
+            while (!type.equals(TokenType.RightBrace) && !type.equals(TokenType.Eof)) {
+                ast.member(statements, statement());
+            }
+
+            match(TokenType.RightBrace);
+        } catch (SyntaxError e) {
+            // the program's outline itself is broken; keep what was parsed so far
         }
+        return ast.program(record(statements, bodyStart));
+    }
 
-        match(TokenType.RightBrace);
-        return new Program(decls, statements);
+    private void synchronize() {
+        // NOTE: 진단 모드에서 문법 오류가 나면 ; 까지 버리고, } 나 파일 끝에서는 멈춘다.
+        while (!type.equals(TokenType.Semicolon)
+                && !type.equals(TokenType.RightBrace)
+                && !type.equals(TokenType.Eof)) {
+            advance();
+        }
+        if (type.equals(TokenType.Semicolon)) {
+            advance();
+        }
     }
 
-    private Declarations declarations() {
+    private void declarations() {
         // Declarations --> { Declaration }
-        Declarations declarations = new Declarations();
-        while (token.type().equals(TokenType.Int) ||
-                token.type().equals(TokenType.Bool) ||
-                token.type().equals(TokenType.Float) ||
-                token.type().equals(TokenType.Char)) {
-
-            declaration(declarations);
+        while (type.equals(TokenType.Int) ||
+                type.equals(TokenType.Bool) ||
+                type.equals(TokenType.Float) ||
+                type.equals(TokenType.Char)) {
+
+            try {
+                declaration();
+            } catch (SyntaxError e) {
+                synchronize();
+            }
         }
-
-        return declarations;
     }
 
-    private void declaration(Declarations ds) {
-        // Declaration  --> Type : Identifier { , Identifier([Int]) } ;
+    private void declaration() {
+        // Declaration  --> Type : Identifier { , Identifier{[Int]} } ;
         Type currentType = type();
-        token = lexer.next();
-        if (!token.type().equals(TokenType.Colon)) {
+        advance();
+        if (!type.equals(TokenType.Colon)) {
             error(TokenType.Colon);
         }
-        // TODO 1차원 배열
-        while (!token.type().equals(TokenType.Semicolon)) {
-            token = lexer.next();
-            if (token.type().equals(TokenType.Identifier)) {
-                String token_value = token.value();
-                token = lexer.next();
-                if (token.type().equals(TokenType.LeftBracket)) {
-                    token = lexer.next();
-                    if (token.type().equals(TokenType.IntLiteral)) {
-                        ds.add(new Declaration(new Variable(token_value), new Type(currentType.toString(), Integer.parseInt(token.value()))));
-                    }
-                    token = lexer.next();
-                    if (!token.type().equals(TokenType.RightBracket)) {
-                        error("]");
+        while (!type.equals(TokenType.Semicolon)) {
+            advance();
+            if (type.equals(TokenType.Identifier)) {
+                String token_value = text();
+                advance();
+                if (type.equals(TokenType.LeftBracket)) {
+                    // NOTE: 다차원 배열도 원소 전체를 하나의 버퍼에 둔다. 원소 수가 int 를 넘으면 안 된다.
+                    List<Integer> dims = new ArrayList<Integer>();
+                    long size = 1;
+                    while (type.equals(TokenType.LeftBracket)) {
+                        advance();
+                        if (!type.equals(TokenType.IntLiteral)) {
+                            error(TokenType.IntLiteral);
+                        }
+                        int d = Integer.parseInt(text());
+                        size *= d;
+                        if (size > Integer.MAX_VALUE) {
+                            error("an array of at most " + Integer.MAX_VALUE + " elements");
+                        }
+                        dims.add(d);
+                        advance();
+                        if (!type.equals(TokenType.RightBracket)) {
+                            error("]");
+                        }
+                        advance();
                     }
-                    token = lexer.next();
+                    int[] dimensions = new int[dims.size()];
+                    for (int k = 0; k < dimensions.length; k++)
+                        dimensions[k] = dims.get(k);
+                    ast.declare(token_value, currentType.arrayOf(dimensions));
                 } else {
-                    ds.add(new Declaration(new Variable(token_value), currentType));
+                    ast.declare(token_value, currentType);
                 }
             } else {
                 error("Identifier");
             }
-            if (!token.type().equals(TokenType.Semicolon) && !token.type().equals(TokenType.Comma)) {
+            if (!type.equals(TokenType.Semicolon) && !type.equals(TokenType.Comma)) {
                 error("; | ,");
             }
         }
-        if (!token.type().equals(TokenType.Semicolon)) {
+        if (!type.equals(TokenType.Semicolon)) {
             error(TokenType.Semicolon);
         }
-        token = lexer.next();
+        advance();
     }
 
     private Type type() {
         // Type  -->  int | bool | float | char
-        if (token.type().equals(TokenType.Int)) {
+        if (type.equals(TokenType.Int)) {
             return Type.INT;
-        } else if (token.type().equals(TokenType.Bool)) {
+        } else if (type.equals(TokenType.Bool)) {
             return Type.BOOL;
-        } else if (token.type().equals(TokenType.Float)) {
+        } else if (type.equals(TokenType.Float)) {
             return Type.FLOAT;
-        } else if (token.type().equals(TokenType.Char)) {
+        } else if (type.equals(TokenType.Char)) {
             return Type.CHAR;
         } else {
             error("Type");
@@ -128,406 +243,371 @@ class Parser {
         }
     }
 
-    private Statement statement() {
+    private int statement() {
+        int start = position();
+        int s;
+        try {
+            s = statementBody();
+        } catch (SyntaxError e) {
+            synchronize();
+            s = ast.skip();
+        }
+        return record(s, start);
+    }
+
+    private int statementBody() {
         // Statement --> ; | Block | Assignment | IfStatement | WhileStatement
-        if (token.type().equals(TokenType.Semicolon)) { // ;
-            return new Skip();
-        } else if (token.type().equals(TokenType.LeftBrace)) { // Block
+        if (type.equals(TokenType.Semicolon)) { // ;
+            advance();
+            return ast.skip();
+        } else if (type.equals(TokenType.LeftBrace)) { // Block
             return statements();
-        } else if (token.type().equals(TokenType.Identifier)) { // Assignment
+        } else if (type.equals(TokenType.Identifier)) { // Assignment
             return assignment();
-        } else if (token.type().equals(TokenType.If)) {
+        } else if (type.equals(TokenType.If)) {
             return ifStatement();
-        } else if (token.type().equals(TokenType.While)) {
+        } else if (type.equals(TokenType.While)) {
             return whileStatement();
-        } else if (token.type().equals(TokenType.Print)) {
+        } else if (type.equals(TokenType.Print)) {
             return printStatement();
-        } else if (token.type().equals(TokenType.Scan)) {
+        } else if (type.equals(TokenType.Scan)) {
             return scanStatement();
         } else {
             error("Statement");
-            return null;
+            return AstView.NONE;
         }
     }
 
-    private Block statements() {
+    private int statements() {
         // Block --> '{' Statements '}'
 
-        if (!token.type().equals(TokenType.LeftBrace)) {
+        if (!type.equals(TokenType.LeftBrace)) {
             error(TokenType.LeftBrace);
         }
-        token = lexer.next();
-        Block b = new Block();
-        while (!token.type().equals(TokenType.RightBrace)) {
-            b.members.add(statement());
+        advance();
+        int b = ast.block();
+        while (!type.equals(TokenType.RightBrace) && !type.equals(TokenType.Eof)) {
+            ast.member(b, statement());
         }
 
-        token = lexer.next();
+        match(TokenType.RightBrace);
 
         return b;
     }
 
-    private Assignment assignment() {
+    private int assignment() {
         // Assignment --> Identifier = Expression ;
-        String id = token.value();
+        String id = text();
 
-        token = lexer.next();
-
-        boolean isArray = false;
-        Expression expr = null;
-        if (token.type().equals(TokenType.LeftBracket)) {
-            isArray = true;
-            token = lexer.next();
+        advance();
 
-            expr = expression();
-            if (!token.type().equals(TokenType.RightBracket)) {
-                error(TokenType.RightBracket);
-            }
-            token = lexer.next();
-        }
+        int target = subscripts(ast.variable(id));
 
-        if (!token.type().equals(TokenType.Assign)) {
+        if (!type.equals(TokenType.Assign)) {
             error(TokenType.Assign);
         }
-        token = lexer.next();
+        advance();
 
-        Expression exp = expression();
+        int exp = expression();
 
-        if (!token.type().equals(TokenType.Semicolon)) {
-            error(TokenType.Assign);
+        if (!type.equals(TokenType.Semicolon)) {
+            error(TokenType.Semicolon);
         }
-        token = lexer.next();
+        advance();
 
-        if (isArray && expr != null) {
-            return new Assignment(new Variable(id + "[" + expr.toString() + "]") , exp);
-        }
+        return ast.assignment(target, exp);
+    }
 
-        return new Assignment(new Variable(id), exp);
+    private int subscripts(int variable) {
+        // Subscripts --> { [ Expression ] }
+        // returns variable itself when there are none
+        int ref = variable;
+        while (type.equals(TokenType.LeftBracket)) {
+            advance();
+            int index = expression();
+            if (!type.equals(TokenType.RightBracket)) {
+                error(TokenType.RightBracket);
+            }
+            advance();
+            if (ref == variable)
+                ref = ast.arrayRef(variable, index);
+            else
+                ast.index(ref, index);
+        }
+        return ref;
     }
 
-    private Conditional ifStatement() {
-        if (!token.type().equals(TokenType.If)) {
+    private int ifStatement() {
+        if (!type.equals(TokenType.If)) {
             error(TokenType.If);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.LeftParen)) {
+        advance();
+        if (!type.equals(TokenType.LeftParen)) {
             error(TokenType.LeftParen);
         }
 
-        token = lexer.next();
-        Expression exp = expression();
+        advance();
+        int exp = expression();
 
-        if (!token.type().equals(TokenType.RightParen)) {
+        if (!type.equals(TokenType.RightParen)) {
             error(TokenType.RightParen);
         }
 
-        token = lexer.next();
+        advance();
 
-        Statement state = statement();
+        int state = statement();
 
-        if (token.type().equals(TokenType.Else)) {
-            token = lexer.next();
-            Statement elseStatement = statement();
+        if (type.equals(TokenType.Else)) {
+            advance();
+            int elseStatement = statement();
 
-            return new Conditional(exp, state, elseStatement);
+            return ast.conditional(exp, state, elseStatement);
         }
-        return new Conditional(exp, state);
+        return ast.conditional(exp, state, ast.skip());
     }
 
-    private Loop whileStatement() {
+    private int whileStatement() {
         // WhileStatement --> while ( Expression ) Statement
 
-        if (!token.type().equals(TokenType.While)) {
+        if (!type.equals(TokenType.While)) {
             error(TokenType.While);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.LeftParen)) {
+        advance();
+        if (!type.equals(TokenType.LeftParen)) {
             error(TokenType.LeftParen);
         }
 
-        token = lexer.next();
-        Expression exp = expression();
+        advance();
+        int exp = expression();
 
-        if (!token.type().equals(TokenType.RightParen)) {
+        if (!type.equals(TokenType.RightParen)) {
             error(TokenType.RightParen);
         }
 
-        token = lexer.next();
+        advance();
 
-        Statement state = statement();
+        int state = statement();
 
-        return new Loop(exp, state);
+        return ast.loop(exp, state);
     }
 
-    private Scan scanStatement() {
-        if (!token.type().equals(TokenType.Scan)) {
+    private int scanStatement() {
+        if (!type.equals(TokenType.Scan)) {
             error(TokenType.Scan);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.LeftParen)) {
+        advance();
+        if (!type.equals(TokenType.LeftParen)) {
             error(TokenType.LeftParen);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.Identifier)) {
+        advance();
+        if (!type.equals(TokenType.Identifier)) {
             error(TokenType.Identifier);
         }
 
-        String varName = token.value();
-        token = lexer.next();
+        int target = ast.variable(text());
+        advance();
 
-        if (token.type().equals(TokenType.LeftBracket)) {
-            token = lexer.next();
-            Expression expr = expression();
-            if (!token.type().equals(TokenType.RightBracket)) {
-                error(TokenType.RightBracket);
-            }
-            varName = varName + "[" + expr.toString() + "]";
-            token = lexer.next();
-        }
+        target = subscripts(target);
 
-        if (!token.type().equals(TokenType.RightParen)) {
+        if (!type.equals(TokenType.RightParen)) {
             error(TokenType.RightParen);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.Semicolon)) {
+        advance();
+        if (!type.equals(TokenType.Semicolon)) {
             error(TokenType.Semicolon);
         }
-        token = lexer.next();
+        advance();
 
-        return new Scan(new Variable(varName));
+        return ast.scan(target);
     }
 
-    private Print printStatement() {
-        if (!token.type().equals(TokenType.Print)) {
+    private int printStatement() {
+        if (!type.equals(TokenType.Print)) {
             error(TokenType.Print);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.LeftParen)) {
+        advance();
+        if (!type.equals(TokenType.LeftParen)) {
             error(TokenType.LeftParen);
         }
 
-        token = lexer.next();
-        Expression expr = expression();
+        advance();
+        int expr = expression();
 
-        if (!token.type().equals(TokenType.RightParen)) {
+        if (!type.equals(TokenType.RightParen)) {
             error(TokenType.RightParen);
         }
 
-        token = lexer.next();
-        if (!token.type().equals(TokenType.Semicolon)) {
+        advance();
+        if (!type.equals(TokenType.Semicolon)) {
             error(TokenType.Semicolon);
         }
 
-        token = lexer.next();
-        return new Print(expr);
-    }
-
-    private Expression expression() {
+        advance();
+        return ast.print(expr);
+    }
+
+    // NOTE: 이항 연산자의 결합력(binding power). TokenType.ordinal() 로 한 번에 찾는다.
+    // 0 이면 이항 연산자가 아니다. 같음/비교 연산자는 원래 문법처럼 결합하지 않는다.
+    private static final int[] bindingPower = new int[TokenType.values().length];
+    private static final boolean[] nonAssociative = new boolean[8];
+    private static final Operator[] binaryOperator = new Operator[TokenType.values().length];
+
+    static {
+        bindingPower[TokenType.Or.ordinal()] = 1;
+        bindingPower[TokenType.And.ordinal()] = 2;
+        bindingPower[TokenType.Equals.ordinal()] = 3;
+        bindingPower[TokenType.NotEqual.ordinal()] = 3;
+        bindingPower[TokenType.Less.ordinal()] = 4;
+        bindingPower[TokenType.LessEqual.ordinal()] = 4;
+        bindingPower[TokenType.Greater.ordinal()] = 4;
+        bindingPower[TokenType.GreaterEqual.ordinal()] = 4;
+        bindingPower[TokenType.Plus.ordinal()] = 5;
+        bindingPower[TokenType.Minus.ordinal()] = 5;
+        bindingPower[TokenType.Multiply.ordinal()] = 6;
+        bindingPower[TokenType.Divide.ordinal()] = 6;
+        nonAssociative[3] = true;
+        nonAssociative[4] = true;
+        binaryOperator[TokenType.Or.ordinal()] = Operator.OR;
+        binaryOperator[TokenType.And.ordinal()] = Operator.AND;
+        binaryOperator[TokenType.Equals.ordinal()] = Operator.EQ;
+        binaryOperator[TokenType.NotEqual.ordinal()] = Operator.NE;
+        binaryOperator[TokenType.Less.ordinal()] = Operator.LT;
+        binaryOperator[TokenType.LessEqual.ordinal()] = Operator.LE;
+        binaryOperator[TokenType.Greater.ordinal()] = Operator.GT;
+        binaryOperator[TokenType.GreaterEqual.ordinal()] = Operator.GE;
+        binaryOperator[TokenType.Plus.ordinal()] = Operator.PLUS;
+        binaryOperator[TokenType.Minus.ordinal()] = Operator.MINUS;
+        binaryOperator[TokenType.Multiply.ordinal()] = Operator.TIMES;
+        binaryOperator[TokenType.Divide.ordinal()] = Operator.DIV;
+    }
+
+    private int expression() {
         // Expression --> Conjunction { || Conjunction }
-        Expression lhs, rhs;
-
-        lhs = conjunction();
-        if (!token.type().equals(TokenType.Or)) {
-            //token = lexer.next();
-            return lhs;
-        }
-        token = lexer.next();
-
-        rhs = conjunction();
-        return new Binary(new Operator(Operator.OR), lhs, rhs);
-    }
-
-    private Expression conjunction() {
         // Conjunction --> Equality { && Equality }
-        Expression lhs, rhs;
-
-        lhs = equality();
-        if (!token.type().equals(TokenType.And)) {
-            //token = lexer.next();
-            return lhs;
-        }
-        token = lexer.next();
-
-        rhs = equality();
-        return new Binary(new Operator(Operator.AND), lhs, rhs);
-    }
-
-    private Expression equality() {
         // Equality --> Relation [ EquOp Relation ]
-        Expression lhs, rhs;
-
-        lhs = relation();
-        if (!isEqualityOp()) {
-            //token = lexer.next();
-            return lhs;
-        }
-        String op = token.value();
-        token = lexer.next();
-
-        rhs = relation();
-        return new Binary(new Operator(op), lhs, rhs);
-    }
-
-    private Expression relation() {
-        // Relation --> Addition [RelOp Addition]
-        Expression lhs, rhs;
-
-        lhs = addition();
-        if (!isRelationalOp()) {
-            //token = lexer.next();
-            return lhs;
-        }
-        String op = token.value();
-        token = lexer.next();
-
-        rhs = addition();
-        return new Binary(new Operator(op), lhs, rhs);
-    }
-
-    private Expression addition() {
+        // Relation --> Addition [ RelOp Addition ]
         // Addition --> Term { AddOp Term }
-        Expression e = term();
-        while (isAddOp()) {
-            Operator op = new Operator(match(token.type()));
-            Expression term2 = term();
-            e = new Binary(op, e, term2);
-        }
-        return e;
+        // Term --> Factor { MultiplyOp Factor }
+        return expression(1);
     }
 
-    private Expression term() {
-        // Term --> Factor { MultiplyOp Factor }
-        Expression e = factor();
-        while (isMultiplyOp()) {
-            Operator op = new Operator(match(token.type()));
-            Expression term2 = factor();
-            e = new Binary(op, e, term2);
+    private int expression(int minPower) {
+        // precedence climbing: operators binding at least minPower, left associative
+        int e = factor();
+        int ceiling = Integer.MAX_VALUE; // after a non-associative operator only looser ones may follow
+        while (true) {
+            int power = bindingPower[type.ordinal()];
+            if (power < minPower || power >= ceiling) // power 0: not a binary operator
+                return e;
+            Operator op = binaryOperator[type.ordinal()];
+            advance();
+            int term2 = expression(power + 1);
+            e = ast.binary(op, e, term2);
+            ceiling = nonAssociative[power] ? power : Integer.MAX_VALUE;
         }
-        return e;
     }
 
-    private Expression factor() {
+    private int factor() {
         // Factor --> [ UnaryOp ] Primary
         if (isUnaryOp()) {
-            Operator op = new Operator(match(token.type()));
-            Expression term = primary();
-            return new Unary(op, term);
+            Operator op = type.equals(TokenType.Not) ? Operator.NOT : Operator.NEG;
+            advance();
+            int term = primary();
+            return ast.unary(op, term);
         } else return primary();
     }
 
-    private Expression primary() {
+    private int primary() {
         // Primary --> Identifier | Literal | ( Expression )
         //             | Type ( Expression )
-        Expression e = null;
-        if (token.type().equals(TokenType.Identifier)) {
+        int e = AstView.NONE;
+        if (type.equals(TokenType.Identifier)) {
             //e = new Variable(match(TokenType.Identifier));
-            String token_value = token.value();
-            token = lexer.next();
-            if (token.type().equals(TokenType.LeftBracket)) {
-                token = lexer.next();
-                Expression expr = expression();
-
-                if (!token.type().equals(TokenType.RightBracket)){
-                    error(TokenType.RightBracket);
-                }
-                token = lexer.next();
-                e = new Variable(token_value + "[" + expr.toString() + "]");
-            } else {
-                e = new Variable(token_value);
-            }
+            int variable = ast.variable(text());
+            advance();
+            e = subscripts(variable);
         } else if (isLiteral()) {
             e = literal();
-        } else if (token.type().equals(TokenType.LeftParen)) {
-            token = lexer.next();
+        } else if (type.equals(TokenType.LeftParen)) {
+            advance();
             e = expression();
             match(TokenType.RightParen);
         } else if (isType()) {
-            Operator op = new Operator(match(token.type()));
+            Operator op = castOp();
             match(TokenType.LeftParen);
-            Expression term = expression();
+            int term = expression();
             match(TokenType.RightParen);
-            e = new Unary(op, term);
+            e = ast.unary(op, term);
         } else error("Identifier | Literal | ( | Type");
         return e;
     }
 
-    private Value literal() {
-        if (token.type().equals(TokenType.IntLiteral)) {
-            IntValue value = new IntValue(Integer.parseInt(token.value()));
-            token = lexer.next();
+    private int literal() {
+        if (type.equals(TokenType.IntLiteral)) {
+            int value = ast.intLiteral(Integer.parseInt(text()));
+            advance();
             return value;
-        } else if (token.type().equals(TokenType.CharLiteral)) {
-            CharValue value = new CharValue(token.value().charAt(0));
-            token = lexer.next();
+        } else if (type.equals(TokenType.CharLiteral)) {
+            int value = ast.charLiteral(cursor != null ? cursor.charValue() : token.value().charAt(0));
+            advance();
             return value;
-        } else if (token.type().equals(TokenType.FloatLiteral)) {
-            FloatValue value = new FloatValue(Float.parseFloat(token.value()));
-            token = lexer.next();
+        } else if (type.equals(TokenType.FloatLiteral)) {
+            int value = ast.floatLiteral(Float.parseFloat(text()));
+            advance();
             return value;
-        } else if (token.type().equals(TokenType.True)) {
-            BoolValue value = new BoolValue(true);
-            token = lexer.next();
+        } else if (type.equals(TokenType.True)) {
+            int value = ast.boolLiteral(true);
+            advance();
             return value;
-        } else if (token.type().equals(TokenType.False)) {
-            BoolValue value = new BoolValue(false);
-            token = lexer.next();
+        } else if (type.equals(TokenType.False)) {
+            int value = ast.boolLiteral(false);
+            advance();
             return value;
         } else {
             error("Literal");
-            return null;
+            return AstView.NONE;
         }
     }
 
-    private boolean isAddOp() {
-        return token.type().equals(TokenType.Plus) ||
-                token.type().equals(TokenType.Minus);
-    }
-
-    private boolean isMultiplyOp() {
-        return token.type().equals(TokenType.Multiply) ||
-                token.type().equals(TokenType.Divide);
+    private Operator castOp() {
+        // NOTE: 형변환 연산자는 키워드(정수, 실수, 문자)가 아니라 Operator.INT 등으로 만든다.
+        Type t = type();
+        advance();
+        if (t == Type.INT) return Operator.INT;
+        if (t == Type.FLOAT) return Operator.FLOAT;
+        if (t == Type.CHAR) return Operator.CHAR;
+        error("정수 | 실수 | 문자");
+        return null;
     }
 
     private boolean isUnaryOp() {
-        return token.type().equals(TokenType.Not) ||
-                token.type().equals(TokenType.Minus);
-    }
-
-    private boolean isEqualityOp() {
-        return token.type().equals(TokenType.Equals) ||
-                token.type().equals(TokenType.NotEqual);
-    }
-
-    private boolean isRelationalOp() {
-        return token.type().equals(TokenType.Less) ||
-                token.type().equals(TokenType.LessEqual) ||
-                token.type().equals(TokenType.Greater) ||
-                token.type().equals(TokenType.GreaterEqual);
+        return type.equals(TokenType.Not) ||
+                type.equals(TokenType.Minus);
     }
 
     private boolean isType() {
-        return token.type().equals(TokenType.Int)
-                || token.type().equals(TokenType.Bool)
-                || token.type().equals(TokenType.Float)
-                || token.type().equals(TokenType.Char);
+        return type.equals(TokenType.Int)
+                || type.equals(TokenType.Bool)
+                || type.equals(TokenType.Float)
+                || type.equals(TokenType.Char);
     }
 
     private boolean isLiteral() {
-        return token.type().equals(TokenType.IntLiteral) ||
+        return type.equals(TokenType.IntLiteral) ||
                 isBooleanLiteral() ||
-                token.type().equals(TokenType.FloatLiteral) ||
-                token.type().equals(TokenType.CharLiteral);
+                type.equals(TokenType.FloatLiteral) ||
+                type.equals(TokenType.CharLiteral);
     }
 
     private boolean isBooleanLiteral() {
-        return token.type().equals(TokenType.True) ||
-                token.type().equals(TokenType.False);
+        return type.equals(TokenType.True) ||
+                type.equals(TokenType.False);
     }
 
 } // Parser
\ No newline at end of file
@@ -0,0 +1,135 @@
+package kr.youngminz.clitelexer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class PipelinedTokenStream implements TokenStream, AutoCloseable {
+    // Runs a TokenStream (normally a Lexer) on its own producer thread and hands
+    // its tokens to the Parser thread through a single-producer/single-consumer
+    // ring buffer, so reading and lexing overlap with parsing.
+    //
+    // NOTE: 링이 가득 차거나 비면 SPINS 번 돌아 보고, YIELDS 번 양보한 뒤에 park 한다.
+    // 상대편은 index 를 공개한 뒤 waiting 표시를 보고 unpark 한다. 둘 다 volatile 이라 깨우는 신호를 놓치지 않는다.
+    // 파서가 Eof 전에 멈추면 close() 로 생산자 스레드를 끝내야 한다.
+    // 생산자에서 난 예외는 failure 에 두었다가 파서 스레드의 next() 가 다시 던진다.
+
+    private static final int CAPACITY = 1 << 12; // must be a power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH = 64;         // tokens per publication
+    private static final int SPINS = 100;        // busy checks before yielding
+    private static final int YIELDS = 1000;      // Thread.yield() calls before parking
+
+    private final Token[] ring = new Token[CAPACITY];
+    private final AtomicLong published = new AtomicLong(); // written by the producer only
+    private final AtomicLong consumed = new AtomicLong();  // written by the consumer only
+    private final Thread producer;
+    private volatile Thread consumer;           // the parked consumer, if any
+    private volatile boolean producerWaiting;
+    private volatile boolean closed;
+    private volatile Throwable failure;         // what the producer threw, set after its last publish
+
+    // consumer side
+    private long readIndex = 0;
+    private long readLimit = 0;
+    private boolean eof = false;
+
+    public PipelinedTokenStream(final TokenStream source) {
+        producer = new Thread(() -> produce(source), "clite-lexer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce(TokenStream source) {
+        long writeIndex = 0;
+        long lastPublished = 0;
+        long freeLimit = CAPACITY; // cached consumed + CAPACITY
+        Token t;
+        try {
+            do {
+                t = source.next();
+                if (writeIndex == freeLimit) { // ring is full
+                    // NOTE: 기다리기 전에 쓴 것을 먼저 공개해야 한다. 아니면 둘 다 서로를 기다린다.
+                    publish(writeIndex);
+                    lastPublished = writeIndex;
+                    for (int spins = 0; (freeLimit = consumed.get() + CAPACITY) == writeIndex; spins++) {
+                        if (closed)
+                            return;
+                        if (spins >= SPINS + YIELDS) {
+                            producerWaiting = true;
+                            if (consumed.get() + CAPACITY == writeIndex && !closed)
+                                LockSupport.park(this);
+                            producerWaiting = false;
+                        } else if (spins >= SPINS) {
+                            Thread.yield();
+                        }
+                    }
+                }
+                ring[(int) writeIndex & MASK] = t;
+                writeIndex++;
+                if (writeIndex - lastPublished >= BATCH || t == Token.eofTok) {
+                    publish(writeIndex);
+                    lastPublished = writeIndex;
+                }
+            } while (t != Token.eofTok && !closed);
+        } catch (Throwable e) {
+            // the tokens before the failure are still read first; then next() throws e
+            failure = e;
+            publish(writeIndex);
+        }
+    }
+
+    private void publish(long writeIndex) {
+        published.set(writeIndex); // the slots below become visible first
+        Thread waiting = consumer;
+        if (waiting != null)
+            LockSupport.unpark(waiting);
+    }
+
+    public Token next() {
+        if (eof)
+            return Token.eofTok;
+        if (readIndex == readLimit) {
+            release(readIndex);
+            for (int spins = 0; (readLimit = published.get()) == readIndex; spins++) {
+                Throwable e = failure;
+                if (e != null && published.get() == readIndex) // every token before it has been read
+                    rethrow(e);
+                if (spins >= SPINS + YIELDS) {
+                    consumer = Thread.currentThread();
+                    if (published.get() == readIndex && failure == null)
+                        LockSupport.park(this);
+                    consumer = null;
+                } else if (spins >= SPINS) {
+                    Thread.yield();
+                }
+            }
+        }
+        Token t = ring[(int) readIndex & MASK];
+        readIndex++;
+        if ((readIndex & (BATCH - 1)) == 0)
+            release(readIndex);
+        eof = t == Token.eofTok;
+        return t;
+    }
+
+    private static void rethrow(Throwable e) { // on every later next() too
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
+        if (e instanceof Error)
+            throw (Error) e;
+        throw new IllegalStateException("lexer thread failed", e);
+    }
+
+    private void release(long readIndex) {
+        consumed.set(readIndex);
+        if (producerWaiting)
+            LockSupport.unpark(producer);
+    }
+
+    // Stop the producer; the tokens it has not lexed yet are never read.
+    public void close() {
+        closed = true;
+        eof = true;
+        LockSupport.unpark(producer);
+    }
+}
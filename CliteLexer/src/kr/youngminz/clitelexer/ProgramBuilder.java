@@ -0,0 +1,111 @@
+package kr.youngminz.clitelexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ProgramBuilder implements AstBuilder {
+    // Makes the heap objects of a Program for the Parser. A handle is the
+    // index of its object in nodes; the objects link to each other directly.
+
+    private Object[] nodes = new Object[64];
+    private int size = 0;
+    private final Declarations declarations = new Declarations();
+
+    private int add(Object node) {
+        if (size == nodes.length)
+            nodes = Arrays.copyOf(nodes, size * 2);
+        nodes[size] = node;
+        return size++;
+    }
+
+    Program programAt(int h) {
+        return (Program) nodes[h];
+    }
+
+    Statement statementAt(int h) {
+        return (Statement) nodes[h];
+    }
+
+    private Expression expressionAt(int h) {
+        return (Expression) nodes[h];
+    }
+
+    public void declare(String name, Type t) {
+        declarations.add(new Declaration(new Variable(name), t));
+    }
+
+    public int program(int body) {
+        return add(new Program(declarations, (Block) nodes[body]));
+    }
+
+    public int skip() {
+        return add(new Skip());
+    }
+
+    public int block() {
+        return add(new Block());
+    }
+
+    public void member(int block, int statement) {
+        ((Block) nodes[block]).members.add(statementAt(statement));
+    }
+
+    public int assignment(int target, int source) {
+        return add(new Assignment((VariableRef) nodes[target], expressionAt(source)));
+    }
+
+    public int conditional(int test, int thenbranch, int elsebranch) {
+        return add(new Conditional(expressionAt(test), statementAt(thenbranch), statementAt(elsebranch)));
+    }
+
+    public int loop(int test, int body) {
+        return add(new Loop(expressionAt(test), statementAt(body)));
+    }
+
+    public int print(int expression) {
+        return add(new Print(expressionAt(expression)));
+    }
+
+    public int scan(int target) {
+        return add(new Scan((VariableRef) nodes[target]));
+    }
+
+    public int variable(String id) {
+        return add(new Variable(id));
+    }
+
+    public int arrayRef(int variable, int index) {
+        List<Expression> indices = new ArrayList<Expression>(2);
+        indices.add(expressionAt(index));
+        return add(new ArrayRef((Variable) nodes[variable], indices));
+    }
+
+    public void index(int arrayRef, int index) {
+        ((ArrayRef) nodes[arrayRef]).indices.add(expressionAt(index));
+    }
+
+    public int intLiteral(int value) {
+        return add(new IntValue(value));
+    }
+
+    public int floatLiteral(float value) {
+        return add(new FloatValue(value));
+    }
+
+    public int charLiteral(char value) {
+        return add(new CharValue(value));
+    }
+
+    public int boolLiteral(boolean value) {
+        return add(new BoolValue(value));
+    }
+
+    public int binary(Operator op, int term1, int term2) {
+        return add(new Binary(op, expressionAt(term1), expressionAt(term2)));
+    }
+
+    public int unary(Operator op, int term) {
+        return add(new Unary(op, expressionAt(term)));
+    }
+}
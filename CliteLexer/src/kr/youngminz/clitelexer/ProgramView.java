@@ -0,0 +1,192 @@
+package kr.youngminz.clitelexer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ProgramView implements AstView {
+    // Shows the heap objects of a Program through AstView. Handles are given
+    // out lazily as the walk reaches each node, so nothing is copied up front;
+    // a node in a list (declarations, block members, indices) remembers the
+    // list and its position there, which is all next() needs.
+
+    private static final int UNSEEN = -2;
+
+    private Object[] nodes = new Object[64];
+    private int[] kinds = new int[64];
+    private List<?>[] lists = new List<?>[64]; // the list holding node n, if any
+    private int[] positions = new int[64];     // and its index there
+    private int[] children = new int[64 * 4];  // memoized first, second, third, next
+    private int size = 0;
+    private int declarations, body;
+
+    private final Map<String, Integer> nameIds = new HashMap<String, Integer>();
+
+    ProgramView(Program p) {
+        this(p.decpart, p.body);
+    }
+
+    ProgramView(Declarations d, Block b) { // b may be null to check only the declarations
+        // NOTE: 선언된 이름에 먼저 번호를 주어서 nameCount() 가 모두를 포함하게 한다.
+        for (Declaration di : d)
+            nameId(di.v.toString());
+        declarations = d.isEmpty() ? NONE : add(d.get(0), d, 0);
+        body = b == null ? NONE : add(b, null, 0);
+    }
+
+    private int add(Object node, List<?> list, int position) {
+        if (size == nodes.length) {
+            int capacity = size * 2;
+            nodes = Arrays.copyOf(nodes, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            lists = Arrays.copyOf(lists, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            children = Arrays.copyOf(children, capacity * 4);
+        }
+        nodes[size] = node;
+        kinds[size] = kindOf(node);
+        lists[size] = list;
+        positions[size] = position;
+        Arrays.fill(children, size * 4, size * 4 + 4, UNSEEN);
+        return size++;
+    }
+
+    private int add(Object node) {
+        return node == null ? NONE : add(node, null, 0);
+    }
+
+    private int first(List<?> list) {
+        return list.isEmpty() ? NONE : add(list.get(0), list, 0);
+    }
+
+    private static int kindOf(Object o) {
+        if (o instanceof Declaration) return DECLARATION;
+        if (o instanceof Block) return BLOCK;
+        if (o instanceof Skip) return SKIP;
+        if (o instanceof Assignment) return ASSIGNMENT;
+        if (o instanceof Conditional) return CONDITIONAL;
+        if (o instanceof Loop) return LOOP;
+        if (o instanceof Print) return PRINT;
+        if (o instanceof Scan) return SCAN;
+        if (o instanceof Variable) return VARIABLE;
+        if (o instanceof ArrayRef) return ARRAY_REF;
+        if (o instanceof IntValue) return INT_VALUE;
+        if (o instanceof FloatValue) return FLOAT_VALUE;
+        if (o instanceof CharValue) return CHAR_VALUE;
+        if (o instanceof BoolValue) return BOOL_VALUE;
+        if (o instanceof Binary) return BINARY;
+        if (o instanceof Unary) return UNARY;
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    // the child'th child of n (3: its next sibling), registered on first use
+    private int child(int n, int child) {
+        int c = children[n * 4 + child];
+        if (c == UNSEEN) {
+            c = find(n, child);
+            children[n * 4 + child] = c;
+        }
+        return c;
+    }
+
+    private int find(int n, int child) {
+        Object o = nodes[n];
+        if (child == 3) {
+            List<?> list = lists[n];
+            int next = positions[n] + 1;
+            return list == null || next >= list.size() ? NONE : add(list.get(next), list, next);
+        }
+        switch (kinds[n]) {
+            case BLOCK:
+                return child == 0 ? first(((Block) o).members) : NONE;
+            case ASSIGNMENT:
+                return add(child == 0 ? ((Assignment) o).target : child == 1 ? ((Assignment) o).source : null);
+            case CONDITIONAL: {
+                Conditional c = (Conditional) o;
+                return add(child == 0 ? c.test : child == 1 ? c.thenbranch : c.elsebranch);
+            }
+            case LOOP:
+                return add(child == 0 ? ((Loop) o).test : child == 1 ? ((Loop) o).body : null);
+            case PRINT:
+                return add(child == 0 ? ((Print) o).body : null);
+            case SCAN:
+                return add(child == 0 ? ((Scan) o).var : null);
+            case ARRAY_REF:
+                return child == 0 ? add(((ArrayRef) o).array) : child == 1 ? first(((ArrayRef) o).indices) : NONE;
+            case BINARY:
+                return add(child == 0 ? ((Binary) o).term1 : child == 1 ? ((Binary) o).term2 : null);
+            case UNARY:
+                return add(child == 0 ? ((Unary) o).term : null);
+            default:
+                return NONE;
+        }
+    }
+
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = nameIds.size();
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    public int declarations() {
+        return declarations;
+    }
+
+    public int body() {
+        return body;
+    }
+
+    public int kind(int n) {
+        return kinds[n];
+    }
+
+    public int first(int n) {
+        return child(n, 0);
+    }
+
+    public int second(int n) {
+        return child(n, 1);
+    }
+
+    public int third(int n) {
+        return child(n, 2);
+    }
+
+    public int next(int n) {
+        return child(n, 3);
+    }
+
+    public int nameCount() {
+        return nameIds.size();
+    }
+
+    public int nameId(int n) {
+        return nameId(name(n));
+    }
+
+    public String name(int n) {
+        Object o = nodes[n];
+        return o instanceof Declaration ? ((Declaration) o).v.toString() : o.toString();
+    }
+
+    public Type declaredType(int n) {
+        return ((Declaration) nodes[n]).t;
+    }
+
+    public Operator op(int n) {
+        Object o = nodes[n];
+        return o instanceof Binary ? ((Binary) o).op : ((Unary) o).op;
+    }
+
+    public String text(int n) {
+        return nodes[n].toString();
+    }
+
+    public void annotate(int n, Type t) {
+        ((Expression) nodes[n]).type = t;
+    }
+}
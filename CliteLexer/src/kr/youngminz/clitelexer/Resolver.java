@@ -0,0 +1,80 @@
+package kr.youngminz.clitelexer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class Resolver {
+    // Gives every declared variable a dense slot number among the variables
+    // of its kind (int, float, bool, char scalars, and arrays) and stamps
+    // that slot and the declared type on every Variable in the program, so
+    // a runtime can keep each kind in its own primitive array and reach a
+    // variable by index instead of hashing its name. See State.
+    //
+    // NOTE: 타입 검사를 통과한 프로그램이어야 한다. 선언되지 않은 변수는 없다고 본다.
+
+    static final int INT = 0, FLOAT = 1, BOOL = 2, CHAR = 3, ARRAY = 4;
+    static final int KINDS = 5;
+
+    static int kind(Type t) {
+        if (t.isArray()) return ARRAY;
+        if (t == Type.INT) return INT;
+        if (t == Type.FLOAT) return FLOAT;
+        if (t == Type.BOOL) return BOOL;
+        if (t == Type.CHAR) return CHAR;
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    // Resolve every Variable of p; returns the number of slots of each kind.
+    static int[] resolve(Program p) {
+        int[] sizes = new int[KINDS];
+        Map<Variable, Variable> declared = new HashMap<Variable, Variable>(p.decpart.size() * 4 / 3 + 1);
+        for (Declaration d : p.decpart) {
+            d.v.type = d.t;
+            d.v.slot = sizes[kind(d.t)]++;
+            declared.put(d.v, d.v);
+        }
+        resolve(p.body, declared);
+        return sizes;
+    }
+
+    private static void resolve(Statement s, Map<Variable, Variable> declared) {
+        if (s instanceof Skip)
+            return;
+        if (s instanceof Block) {
+            for (Statement m : ((Block) s).members)
+                resolve(m, declared);
+        } else if (s instanceof Assignment) {
+            resolve(((Assignment) s).target, declared);
+            resolve(((Assignment) s).source, declared);
+        } else if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            resolve(c.test, declared);
+            resolve(c.thenbranch, declared);
+            resolve(c.elsebranch, declared);
+        } else if (s instanceof Loop) {
+            resolve(((Loop) s).test, declared);
+            resolve(((Loop) s).body, declared);
+        } else if (s instanceof Print)
+            resolve(((Print) s).body, declared);
+        else if (s instanceof Scan)
+            resolve(((Scan) s).var, declared);
+        else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    private static void resolve(Expression e, Map<Variable, Variable> declared) {
+        if (e instanceof Variable) {
+            Variable v = (Variable) e, d = declared.get(v);
+            v.type = d.type;
+            v.slot = d.slot;
+        } else if (e instanceof ArrayRef) {
+            resolve(((ArrayRef) e).array, declared);
+            for (Expression i : ((ArrayRef) e).indices)
+                resolve(i, declared);
+        } else if (e instanceof Binary) {
+            resolve(((Binary) e).term1, declared);
+            resolve(((Binary) e).term2, declared);
+        } else if (e instanceof Unary)
+            resolve(((Unary) e).term, declared);
+    }
+}
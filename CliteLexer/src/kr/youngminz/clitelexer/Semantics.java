@@ -0,0 +1,311 @@
+package kr.youngminz.clitelexer;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Scanner;
+
+public class Semantics {
+    // Tree-walking interpreter: runs a type checked Program after
+    // TypeTransformer has given every operator its typed form, so the
+    // meaning of each operator is a single switch case. Variables live in
+    // State, in primitive frames indexed by the slots Resolver gives them.
+    //
+    // NOTE: 값을 정하지 않은 변수(배열 원소 포함)를 읽으면 실행 오류로 멈춘다.
+
+    private final Scanner input;
+    private final PrintStream output;
+
+    public Semantics() {
+        this(System.in, System.out);
+    }
+
+    public Semantics(InputStream in, PrintStream out) {
+        input = new Scanner(in);
+        output = out;
+    }
+
+    State M (Program p) {
+        Resolver.resolve(p);
+        return M (p.body, initialState(p.decpart));
+    }
+
+    State initialState (Declarations d) {
+        return new State(d);
+    }
+
+    State M (Statement s, State state) {
+        if (s instanceof Skip) return state;
+        if (s instanceof Assignment)  return M((Assignment)s, state);
+        if (s instanceof Conditional)  return M((Conditional)s, state);
+        if (s instanceof Loop)  return M((Loop)s, state);
+        if (s instanceof Block)  return M((Block)s, state);
+        if (s instanceof Print)  return M((Print)s, state);
+        if (s instanceof Scan)  return M((Scan)s, state);
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    State M (Assignment a, State state) {
+        return store(a.target, a.source, state);
+    }
+
+    State M (Block b, State state) {
+        for (Statement s : b.members)
+            state = M (s, state);
+        return state;
+    }
+
+    State M (Conditional c, State state) {
+        if (bool(c.test, state))
+            return M (c.thenbranch, state);
+        else
+            return M (c.elsebranch, state);
+    }
+
+    State M (Loop l, State state) {
+        while (bool(l.test, state))
+            state = M (l.body, state);
+        return state;
+    }
+
+    State M (Print p, State state) {
+        // print the primitive, not Value.toString(), which gives Java literal syntax
+        Type t = p.body.type;
+        if (t == Type.INT) output.println(integer(p.body, state));
+        else if (t == Type.FLOAT) output.println(real(p.body, state));
+        else if (t == Type.BOOL) output.println(bool(p.body, state));
+        else if (t == Type.CHAR) output.println(character(p.body, state));
+        else throw new IllegalArgumentException("should never reach here");
+        return state;
+    }
+
+    State M (Scan s, State state) {
+        Type t = typeOf(s.var);
+        Value v;
+        if (t == Type.INT) v = new IntValue(input.nextInt());
+        else if (t == Type.FLOAT) v = new FloatValue(input.nextFloat());
+        else if (t == Type.BOOL) v = new BoolValue(input.nextBoolean());
+        else if (t == Type.CHAR) v = new CharValue(input.next().trim().charAt(0));
+        else throw new IllegalArgumentException("should never reach here");
+        return store(s.var, v, state);
+    }
+
+    private static Type typeOf (VariableRef target) {
+        return target instanceof ArrayRef
+                ? ((ArrayRef) target).array.type.elementType()
+                : ((Variable) target).type;
+    }
+
+    // Evaluate source and store it in target, unboxed. The source is
+    // evaluated before the index of an array target.
+    private State store (VariableRef target, Expression source, State state) {
+        Type t = typeOf(target);
+        if (target instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) target;
+            ArrayValue array = state.array(r.array);
+            if (t == Type.INT) {
+                int v = integer(source, state);
+                array.setInt(index(r, array, state), v);
+            } else if (t == Type.FLOAT) {
+                float v = real(source, state);
+                array.setFloat(index(r, array, state), v);
+            } else if (t == Type.BOOL) {
+                boolean v = bool(source, state);
+                array.setBool(index(r, array, state), v);
+            } else {
+                char v = character(source, state);
+                array.setChar(index(r, array, state), v);
+            }
+            return state;
+        }
+        Variable v = (Variable) target;
+        if (t == Type.INT) state.setInt(v, integer(source, state));
+        else if (t == Type.FLOAT) state.setFloat(v, real(source, state));
+        else if (t == Type.BOOL) state.setBool(v, bool(source, state));
+        else state.setChar(v, character(source, state));
+        return state;
+    }
+
+    private int index (ArrayRef r, ArrayValue array, State state) {
+        int i = integer(r.index, state);
+        if (i < 0 || i >= array.length())
+            error("array index out of bounds: " + r + " with index " + i);
+        return i;
+    }
+
+    // The meaning of an expression, one evaluator per type: each reads the
+    // frames of State and the elements of arrays directly and never boxes.
+    // NOTE: TypeTransformer 가 연산자마다 타입을 붙였으므로 각 함수는 그 타입의 결과를 내는
+    // 연산자만 만난다.
+    int integer (Expression e, State state) {
+        expect(e, Type.INT);
+        if (e instanceof Value)
+            return ((Value) e).intValue();
+        if (e instanceof Variable)
+            return state.intValue(defined((Variable) e, state));
+        if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            ArrayValue array = state.array(r.array);
+            return array.intAt(defined(r, array, state));
+        }
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            int v1 = integer(b.term1, state), v2 = integer(b.term2, state);
+            switch (b.op) {
+                case INT_PLUS:  return v1 + v2;
+                case INT_MINUS: return v1 - v2;
+                case INT_TIMES: return v1 * v2;
+                case INT_DIV:
+                    if (v2 == 0)
+                        error("division by zero");
+                    return v1 / v2;
+                case INDEX:
+                    if (v1 < 0 || v1 >= v2)
+                        error("array index out of bounds: dimension of size " + v2 + " with index " + v1);
+                    return v1;
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + b.op);
+            }
+        }
+        Unary u = (Unary) e;
+        switch (u.op) {
+            case INT_NEG: return -integer(u.term, state);
+            case F2I:     return (int) real(u.term, state);
+            case C2I:     return (int) character(u.term, state);
+            default:
+                throw new IllegalArgumentException("should never reach here: " + u.op);
+        }
+    }
+
+    float real (Expression e, State state) {
+        expect(e, Type.FLOAT);
+        if (e instanceof Value)
+            return ((Value) e).floatValue();
+        if (e instanceof Variable)
+            return state.floatValue(defined((Variable) e, state));
+        if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            ArrayValue array = state.array(r.array);
+            return array.floatAt(defined(r, array, state));
+        }
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            float v1 = real(b.term1, state), v2 = real(b.term2, state);
+            switch (b.op) {
+                case FLOAT_PLUS:  return v1 + v2;
+                case FLOAT_MINUS: return v1 - v2;
+                case FLOAT_TIMES: return v1 * v2;
+                case FLOAT_DIV:   return v1 / v2;
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + b.op);
+            }
+        }
+        Unary u = (Unary) e;
+        switch (u.op) {
+            case FLOAT_NEG: return -real(u.term, state);
+            case I2F:       return (float) integer(u.term, state);
+            default:
+                throw new IllegalArgumentException("should never reach here: " + u.op);
+        }
+    }
+
+    boolean bool (Expression e, State state) {
+        expect(e, Type.BOOL);
+        if (e instanceof Value)
+            return ((Value) e).boolValue();
+        if (e instanceof Variable)
+            return state.boolValue(defined((Variable) e, state));
+        if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            ArrayValue array = state.array(r.array);
+            return array.boolAt(defined(r, array, state));
+        }
+        if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            if (u.op != Operator.NOT)
+                throw new IllegalArgumentException("should never reach here: " + u.op);
+            return !bool(u.term, state);
+        }
+        Binary b = (Binary) e;
+        Expression t1 = b.term1, t2 = b.term2;
+        switch (b.op) {
+            // && and || do not evaluate their right operand when the left one decides
+            case AND: return bool(t1, state) && bool(t2, state);
+            case OR:  return bool(t1, state) || bool(t2, state);
+            case INT_LT: return integer(t1, state) <  integer(t2, state);
+            case INT_LE: return integer(t1, state) <= integer(t2, state);
+            case INT_EQ: return integer(t1, state) == integer(t2, state);
+            case INT_NE: return integer(t1, state) != integer(t2, state);
+            case INT_GT: return integer(t1, state) >  integer(t2, state);
+            case INT_GE: return integer(t1, state) >= integer(t2, state);
+            case FLOAT_LT: return real(t1, state) <  real(t2, state);
+            case FLOAT_LE: return real(t1, state) <= real(t2, state);
+            case FLOAT_EQ: return real(t1, state) == real(t2, state);
+            case FLOAT_NE: return real(t1, state) != real(t2, state);
+            case FLOAT_GT: return real(t1, state) >  real(t2, state);
+            case FLOAT_GE: return real(t1, state) >= real(t2, state);
+            case CHAR_LT: return character(t1, state) <  character(t2, state);
+            case CHAR_LE: return character(t1, state) <= character(t2, state);
+            case CHAR_EQ: return character(t1, state) == character(t2, state);
+            case CHAR_NE: return character(t1, state) != character(t2, state);
+            case CHAR_GT: return character(t1, state) >  character(t2, state);
+            case CHAR_GE: return character(t1, state) >= character(t2, state);
+            // NOTE: 논리값끼리의 대소 비교는 거짓 < 참 으로 한다.
+            case BOOL_LT: return bit(t1, state) <  bit(t2, state);
+            case BOOL_LE: return bit(t1, state) <= bit(t2, state);
+            case BOOL_EQ: return bit(t1, state) == bit(t2, state);
+            case BOOL_NE: return bit(t1, state) != bit(t2, state);
+            case BOOL_GT: return bit(t1, state) >  bit(t2, state);
+            case BOOL_GE: return bit(t1, state) >= bit(t2, state);
+            default:
+                throw new IllegalArgumentException("should never reach here: " + b.op);
+        }
+    }
+
+    private int bit (Expression e, State state) {
+        return bool(e, state) ? 1 : 0;
+    }
+
+    char character (Expression e, State state) {
+        expect(e, Type.CHAR);
+        if (e instanceof Value)
+            return ((Value) e).charValue();
+        if (e instanceof Variable)
+            return state.charValue(defined((Variable) e, state));
+        if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            ArrayValue array = state.array(r.array);
+            return array.charAt(defined(r, array, state));
+        }
+        Unary u = (Unary) e;
+        if (u.op != Operator.I2C)
+            throw new IllegalArgumentException("should never reach here: " + u.op);
+        return (char) integer(u.term, state);
+    }
+
+    // Stop on an expression of another type than its evaluator's, rather
+    // than read a default from Value or the wrong frame.
+    // NOTE: 타입 검사와 TypeTransformer 를 거친 프로그램에서는 일어나지 않는다.
+    private static void expect (Expression e, Type t) {
+        if (e.type != t)
+            error("type mismatch: " + e + " is " + e.type + ", not " + t);
+    }
+
+    private Variable defined (Variable v, State state) {
+        if (!state.isSet(v))
+            error("reference to undefined variable: " + v);
+        return v;
+    }
+
+    // the checked index of r, whose element must have been assigned
+    private int defined (ArrayRef r, ArrayValue array, State state) {
+        int i = index(r, array, state);
+        if (!array.isSet(i))
+            error("reference to undefined variable: " + r);
+        return i;
+    }
+
+    private static void error (String msg) {
+        System.err.println("Runtime error: " + msg);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,198 @@
+package kr.youngminz.clitelexer;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Scanner;
+
+class StackVM {
+    // A small Clite instruction set and the machine that runs it. A compiled
+    // program (see VmCompiler) is one int[] of opcodes, each followed by its
+    // operands, plus a constant pool for float literals. Every value is one
+    // int: int, char and bool as themselves, float as its raw bits. So the
+    // operand stack, the locals and every array are plain int[] and an
+    // operation allocates nothing.
+    //
+    // NOTE: BytecodeGenerator 와 같이 모든 변수는 0 으로 시작한다. 지역 변수 대신
+    // 배열 번호를 쓰는 ALOAD/ASTORE 는 범위를 검사한다. 아주 큰 배열은 PagedArray 로 둔다.
+
+    // opcode                 operands      stack
+    static final int HALT = 0;
+    static final int PUSH = 1;          // v            -> v
+    static final int LDC = 2;           // k            -> constants[k]
+    static final int LOAD = 3;          // slot         -> locals[slot]
+    static final int STORE = 4;         // slot       v ->
+    static final int ALOAD = 5;         // array      i -> a[i]
+    static final int ASTORE = 6;        // array    i v ->
+    static final int IADD = 7, ISUB = 8, IMUL = 9, IDIV = 10;      // a b -> a op b
+    static final int FADD = 11, FSUB = 12, FMUL = 13, FDIV = 14;
+    static final int INEG = 15, FNEG = 16, NOT = 17;                // a -> op a
+    static final int I2F = 18, F2I = 19, I2C = 20;
+    static final int ILT = 21, ILE = 22, IEQ = 23, INE = 24, IGT = 25, IGE = 26; // a b -> 0|1
+    static final int FLT = 27, FLE = 28, FEQ = 29, FNE = 30, FGT = 31, FGE = 32;
+    static final int JMP = 33;          // target
+    static final int JZ = 34, JNZ = 35; // target     v ->
+    // int compare and branch: LT, LE, EQ, NE, GT, GE in the order of ILT..IGE
+    static final int IF_LT = 36, IF_LE = 37, IF_EQ = 38, IF_NE = 39, IF_GT = 40, IF_GE = 41; // target  a b ->
+    static final int PRINT_I = 42, PRINT_F = 43, PRINT_Z = 44, PRINT_C = 45; // v ->
+    static final int READ_I = 46, READ_F = 47, READ_Z = 48, READ_C = 49;     // -> v
+    static final int INDEX = 50;        // size         i -> i, if 0 <= i < size
+
+    final int[] code;
+    final int[] constants;   // float literals as raw bits
+    final int locals;        // scalar variables
+    final int[] arraySizes;  // one entry per declared array
+    final String[] arrayNames;
+    final int maxStack;
+
+    StackVM(int[] code, int[] constants, int locals, int[] arraySizes, String[] arrayNames, int maxStack) {
+        this.code = code;
+        this.constants = constants;
+        this.locals = locals;
+        this.arraySizes = arraySizes;
+        this.arrayNames = arrayNames;
+        this.maxStack = maxStack;
+    }
+
+    void run(InputStream in, PrintStream out) {
+        final int[] code = this.code;
+        final int[] stack = new int[maxStack];
+        final int[] local = new int[locals];
+        final int[] sizes = arraySizes;
+        final int[][] arrays = new int[sizes.length][];            // dense arrays
+        final PagedArray[] paged = new PagedArray[sizes.length];  // very large ones
+        for (int i = 0; i < sizes.length; i++)
+            if (PagedArray.sparse(sizes[i]))
+                paged[i] = new PagedArray(sizes[i]);
+            else
+                arrays[i] = new int[sizes[i]];
+        Scanner input = null;
+        int pc = 0, sp = 0; // sp: next free stack slot
+
+        while (true) {
+            switch (code[pc++]) {
+                case HALT:
+                    return;
+                case PUSH:
+                    stack[sp++] = code[pc++];
+                    break;
+                case LDC:
+                    stack[sp++] = constants[code[pc++]];
+                    break;
+                case LOAD:
+                    stack[sp++] = local[code[pc++]];
+                    break;
+                case STORE:
+                    local[code[pc++]] = stack[--sp];
+                    break;
+                case ALOAD: {
+                    int a = code[pc++], i = stack[sp - 1];
+                    if (i < 0 || i >= sizes[a])
+                        outOfBounds(a, i);
+                    int[] dense = arrays[a];
+                    stack[sp - 1] = dense != null ? dense[i] : paged[a].get(i);
+                    break;
+                }
+                case ASTORE: {
+                    int a = code[pc++], v = stack[--sp], i = stack[--sp];
+                    if (i < 0 || i >= sizes[a])
+                        outOfBounds(a, i);
+                    int[] dense = arrays[a];
+                    if (dense != null)
+                        dense[i] = v;
+                    else
+                        paged[a].set(i, v);
+                    break;
+                }
+                case IADD: sp--; stack[sp - 1] += stack[sp]; break;
+                case ISUB: sp--; stack[sp - 1] -= stack[sp]; break;
+                case IMUL: sp--; stack[sp - 1] *= stack[sp]; break;
+                case INDEX: {
+                    int n = code[pc++], i = stack[sp - 1];
+                    if (i < 0 || i >= n)
+                        error("array index out of bounds: dimension of size " + n + " with index " + i);
+                    break;
+                }
+                case IDIV:
+                    sp--;
+                    if (stack[sp] == 0)
+                        error("division by zero");
+                    stack[sp - 1] /= stack[sp];
+                    break;
+                case FADD: sp--; stack[sp - 1] = bits(f(stack[sp - 1]) + f(stack[sp])); break;
+                case FSUB: sp--; stack[sp - 1] = bits(f(stack[sp - 1]) - f(stack[sp])); break;
+                case FMUL: sp--; stack[sp - 1] = bits(f(stack[sp - 1]) * f(stack[sp])); break;
+                case FDIV: sp--; stack[sp - 1] = bits(f(stack[sp - 1]) / f(stack[sp])); break;
+                case INEG: stack[sp - 1] = -stack[sp - 1]; break;
+                case FNEG: stack[sp - 1] = bits(-f(stack[sp - 1])); break;
+                case NOT: stack[sp - 1] ^= 1; break;
+                case I2F: stack[sp - 1] = bits((float) stack[sp - 1]); break;
+                case F2I: stack[sp - 1] = (int) f(stack[sp - 1]); break;
+                case I2C: stack[sp - 1] = (char) stack[sp - 1]; break;
+                case ILT: sp--; stack[sp - 1] = stack[sp - 1] <  stack[sp] ? 1 : 0; break;
+                case ILE: sp--; stack[sp - 1] = stack[sp - 1] <= stack[sp] ? 1 : 0; break;
+                case IEQ: sp--; stack[sp - 1] = stack[sp - 1] == stack[sp] ? 1 : 0; break;
+                case INE: sp--; stack[sp - 1] = stack[sp - 1] != stack[sp] ? 1 : 0; break;
+                case IGT: sp--; stack[sp - 1] = stack[sp - 1] >  stack[sp] ? 1 : 0; break;
+                case IGE: sp--; stack[sp - 1] = stack[sp - 1] >= stack[sp] ? 1 : 0; break;
+                case FLT: sp--; stack[sp - 1] = f(stack[sp - 1]) <  f(stack[sp]) ? 1 : 0; break;
+                case FLE: sp--; stack[sp - 1] = f(stack[sp - 1]) <= f(stack[sp]) ? 1 : 0; break;
+                case FEQ: sp--; stack[sp - 1] = f(stack[sp - 1]) == f(stack[sp]) ? 1 : 0; break;
+                case FNE: sp--; stack[sp - 1] = f(stack[sp - 1]) != f(stack[sp]) ? 1 : 0; break;
+                case FGT: sp--; stack[sp - 1] = f(stack[sp - 1]) >  f(stack[sp]) ? 1 : 0; break;
+                case FGE: sp--; stack[sp - 1] = f(stack[sp - 1]) >= f(stack[sp]) ? 1 : 0; break;
+                case JMP:
+                    pc = code[pc];
+                    break;
+                case JZ:
+                    pc = stack[--sp] == 0 ? code[pc] : pc + 1;
+                    break;
+                case JNZ:
+                    pc = stack[--sp] != 0 ? code[pc] : pc + 1;
+                    break;
+                case IF_LT: sp -= 2; pc = stack[sp] <  stack[sp + 1] ? code[pc] : pc + 1; break;
+                case IF_LE: sp -= 2; pc = stack[sp] <= stack[sp + 1] ? code[pc] : pc + 1; break;
+                case IF_EQ: sp -= 2; pc = stack[sp] == stack[sp + 1] ? code[pc] : pc + 1; break;
+                case IF_NE: sp -= 2; pc = stack[sp] != stack[sp + 1] ? code[pc] : pc + 1; break;
+                case IF_GT: sp -= 2; pc = stack[sp] >  stack[sp + 1] ? code[pc] : pc + 1; break;
+                case IF_GE: sp -= 2; pc = stack[sp] >= stack[sp + 1] ? code[pc] : pc + 1; break;
+                case PRINT_I: out.println(stack[--sp]); break;
+                case PRINT_F: out.println(f(stack[--sp])); break;
+                case PRINT_Z: out.println(stack[--sp] != 0); break;
+                case PRINT_C: out.println((char) stack[--sp]); break;
+                case READ_I: case READ_F: case READ_Z: case READ_C:
+                    if (input == null)
+                        input = new Scanner(in);
+                    stack[sp++] = read(input, code[pc - 1]);
+                    break;
+                default:
+                    throw new IllegalStateException("bad opcode " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+
+    private static int read(Scanner input, int opcode) {
+        switch (opcode) {
+            case READ_I: return input.nextInt();
+            case READ_F: return bits(input.nextFloat());
+            case READ_Z: return input.nextBoolean() ? 1 : 0;
+            default: return input.next().trim().charAt(0);
+        }
+    }
+
+    private static float f(int bits) {
+        return Float.intBitsToFloat(bits);
+    }
+
+    private static int bits(float f) {
+        return Float.floatToRawIntBits(f);
+    }
+
+    private void outOfBounds(int array, int index) {
+        error("array index out of bounds: " + arrayNames[array] + " with index " + index);
+    }
+
+    private static void error(String msg) {
+        System.err.println("Runtime error: " + msg);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,122 @@
+package kr.youngminz.clitelexer;
+
+public class State {
+    // State = set of (Variable, Value) pairs
+    // Kept as one primitive frame per kind of variable, indexed by the slot
+    // Resolver stamped on each Variable, so reading or writing a variable is
+    // an array access rather than a hash lookup. Semantics reads and writes
+    // the frames through the typed accessors, so nothing is boxed; get and
+    // onion box a Value for display and other callers.
+
+    private final Declarations decpart; // for display
+    private final int[] ints;
+    private final float[] floats;
+    private final boolean[] bools;
+    private final char[] chars;
+    private final ArrayValue[] arrays;
+    // NOTE: 값을 정한 적이 있는지: 읽을 때 undef 를 돌려주기 위해 종류마다 따로 둔다.
+    private final boolean[] intSet, floatSet, boolSet, charSet;
+
+    // A state with every variable of d undefined; Resolver must have run.
+    public State(Declarations d) {
+        decpart = d;
+        int[] sizes = new int[Resolver.KINDS];
+        for (Declaration decl : d)
+            sizes[Resolver.kind(decl.t)]++;
+        ints = new int[sizes[Resolver.INT]];
+        floats = new float[sizes[Resolver.FLOAT]];
+        bools = new boolean[sizes[Resolver.BOOL]];
+        chars = new char[sizes[Resolver.CHAR]];
+        arrays = new ArrayValue[sizes[Resolver.ARRAY]];
+        intSet = new boolean[ints.length];
+        floatSet = new boolean[floats.length];
+        boolSet = new boolean[bools.length];
+        charSet = new boolean[chars.length];
+        for (Declaration decl : d)
+            if (decl.t.isArray())
+                arrays[decl.v.slot] = new ArrayValue(decl.t);
+    }
+
+    public Value get(Variable key) {
+        int i = key.slot;
+        switch (Resolver.kind(key.type)) {
+            case Resolver.INT: return intSet[i] ? new IntValue(ints[i]) : Value.mkValue(Type.INT);
+            case Resolver.FLOAT: return floatSet[i] ? new FloatValue(floats[i]) : Value.mkValue(Type.FLOAT);
+            case Resolver.BOOL: return boolSet[i] ? new BoolValue(bools[i]) : Value.mkValue(Type.BOOL);
+            case Resolver.CHAR: return charSet[i] ? new CharValue(chars[i]) : Value.mkValue(Type.CHAR);
+            default: return arrays[i];
+        }
+    }
+
+    // Whether key has been assigned; reading it otherwise is an error.
+    boolean isSet(Variable key) {
+        int i = key.slot;
+        switch (Resolver.kind(key.type)) {
+            case Resolver.INT: return intSet[i];
+            case Resolver.FLOAT: return floatSet[i];
+            case Resolver.BOOL: return boolSet[i];
+            case Resolver.CHAR: return charSet[i];
+            default: return true;
+        }
+    }
+
+    int intValue(Variable key) {
+        return ints[key.slot];
+    }
+
+    float floatValue(Variable key) {
+        return floats[key.slot];
+    }
+
+    boolean boolValue(Variable key) {
+        return bools[key.slot];
+    }
+
+    char charValue(Variable key) {
+        return chars[key.slot];
+    }
+
+    void setInt(Variable key, int v) {
+        ints[key.slot] = v;
+        intSet[key.slot] = true;
+    }
+
+    void setFloat(Variable key, float v) {
+        floats[key.slot] = v;
+        floatSet[key.slot] = true;
+    }
+
+    void setBool(Variable key, boolean v) {
+        bools[key.slot] = v;
+        boolSet[key.slot] = true;
+    }
+
+    void setChar(Variable key, char v) {
+        chars[key.slot] = v;
+        charSet[key.slot] = true;
+    }
+
+    public ArrayValue array(Variable key) {
+        return arrays[key.slot];
+    }
+
+    public State onion(Variable key, Value val) {
+        switch (Resolver.kind(key.type)) {
+            case Resolver.INT: setInt(key, val.intValue()); break;
+            case Resolver.FLOAT: setFloat(key, val.floatValue()); break;
+            case Resolver.BOOL: setBool(key, val.boolValue()); break;
+            case Resolver.CHAR: setChar(key, val.charValue()); break;
+            default: throw new IllegalArgumentException("should never reach here");
+        }
+        return this;
+    }
+
+    public void display() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Declaration d : decpart) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(d.v).append('=').append(get(d.v));
+        }
+        System.out.println(sb.append(']'));
+    }
+}
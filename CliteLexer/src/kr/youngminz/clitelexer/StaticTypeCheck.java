@@ -4,6 +4,25 @@ import java.util.*;
 
 public class StaticTypeCheck {
 
+    // NOTE: 검사 메소드들이 모두 static 이라서, validate() 중인 스레드의 Diagnostics 를 여기 둔다.
+    private static final ThreadLocal<Diagnostics> diagnostics = new ThreadLocal<Diagnostics>();
+
+    // Type check p, collecting every error in d instead of exiting.
+    public static Diagnostics validate(Program p, Diagnostics d) {
+        return validate(new ProgramView(p), d);
+    }
+
+    // The same for a FlatAst, or any other AstView.
+    static Diagnostics validate(AstView ast, Diagnostics d) {
+        diagnostics.set(d);
+        try {
+            V(ast);
+        } finally {
+            diagnostics.remove();
+        }
+        return d;
+    }
+
     public static TypeMap typing (Declarations d) {
         TypeMap map = new TypeMap();
         for (Declaration di : d)
@@ -13,40 +32,38 @@ public class StaticTypeCheck {
 
     public static void check(boolean test, String msg) {
         if (test)  return;
+        Diagnostics d = diagnostics.get();
+        if (d != null) {
+            d.report(msg);
+            return;
+        }
         System.err.println(msg);
         System.exit(1);
     }
 
-    public static void V (Declarations d) {
-        for (int i=0; i<d.size() - 1; i++)
-            for (int j=i+1; j<d.size(); j++) {
-                Declaration di = d.get(i);
-                Declaration dj = d.get(j);
-                check( ! (di.v.equals(dj.v)),
-                        "duplicate declaration: " + dj.v);
-            }
+    // Report every duplicate declaration and build the TypeMap.
+    public static TypeMap V (Declarations d) {
+        V (new ProgramView(d, null));
+        return typing(d);
     }
 
     public static void V (Program p) {
-        V (p.decpart);
-        V (p.body, typing (p.decpart));
+        V (new ProgramView(p));
     }
 
+    // The type V annotated on e. Before V has run, it is computed from tm
+    // (without checking or annotating anything).
     public static Type typeOf (Expression e, TypeMap tm) { // tm = TypeMap which is a tuple (v, k)
-        if (e instanceof Value) return ((Value)e).type;
+        if (e.type != null) return e.type;
+        // NOTE: 선언되지 않은 변수는 V 가 보고한다. 여기서는 null 을 돌려준다.
         if (e instanceof Variable) {
             Variable v = (Variable)e; // containsKey is a hashMap method which takes an object and returns a bool
-
-            if(v.toString().contains("[")) {
-                String tmp=v.toString();
-                int index=tmp.indexOf("[");
-                String tmp_change=tmp.substring(0,index);
-                Variable tmp2 = new Variable(tmp_change);
-                v=tmp2;
-            }
-            check (tm.containsKey(v), "undefined variable: " + v);
             return (Type) tm.get(v);
         }
+        if (e instanceof ArrayRef) {
+            Type t = tm.get(((ArrayRef)e).array);
+            return t == null ? null : t.elementType();
+        }
         if (e instanceof Binary) {
             Binary b = (Binary)e;
             if (b.op.ArithmeticOp( ))
@@ -67,158 +84,211 @@ public class StaticTypeCheck {
         throw new IllegalArgumentException("should never reach here");
     }
 
-    public static void V (Expression e, TypeMap tm) {
-        if (e instanceof Value)
-            return;
-        if (e instanceof Variable) {
-            Variable v = (Variable)e;
-            if(v.toString().contains("[")) {
-                String tmp=v.toString();
-                int index=tmp.indexOf("[");
-                String tmp_change=tmp.substring(0,index);
-                //String[] tmp_change = tmp.split(":");
-                Variable tmp2 = new Variable(tmp_change);
-                v=tmp2;
-            }
-            check( tm.containsKey(v)
-                    , "undeclared variable: " + v);
-            return;
-        }
-        if (e instanceof Binary) {
-            Binary b = (Binary) e;
-            Type typ1 = typeOf(b.term1, tm);
-            Type typ2 = typeOf(b.term2, tm);
-            V (b.term1, tm);
-            V (b.term2, tm);
-            boolean IsTrue1=false;
-            boolean IsTrue2=false;
-            if(typ1.toString().contains("[")&& typ1.toString().contains("]")){
-                typ1.isArray=false;
-                IsTrue1=true;
-            }
-            if(typ2.toString().contains("[")&& typ2.toString().contains("]")){
-                typ2.isArray=false;
-                IsTrue2=true;
-            }
+    // ---- the checker, over a Program (through ProgramView) or a FlatAst ----
 
-            if (b.op.ArithmeticOp( ))
-                check( typ1.toString() == typ2.toString() &&
-                                (typ1 == Type.INT || typ1 == Type.FLOAT)
-                        ,  "해당 변수끼리는 "+b.op+" 연산이 불가능합니다.");
-            else if (b.op.RelationalOp( ))
-                check( typ1 == typ2 , "type error for " + b.op);
-            else if (b.op.BooleanOp( ))
-                check( typ1 == Type.BOOL && typ2 == Type.BOOL,
-                        b.op + ": non-bool operand");
+    // NOTE: 선언된 타입은 이름 번호로 바로 찾는다. 메시지 문자열은 오류가 있을 때만 만든다.
+    // 식마다 찾은 타입을 ast.annotate() 로 알려준다. ProgramView 는 그것을 Expression.type 에 적는다.
+    static void V (AstView ast) {
+        Type[] declared = new Type[ast.nameCount()];
+        int[] position = new int[ast.nameCount()];
+        int i = 0;
+        for (int d = ast.declarations(); d != AstView.NONE; d = ast.next(d)) {
+            int id = ast.nameId(d);
+            i++;
+            if (declared[id] != null)
+                fail("duplicate declaration: " + ast.name(d) + " (declaration " + i
+                        + ", first declared at declaration " + position[id] + ")");
             else
-                throw new IllegalArgumentException("should never reach here BinaryOp error");
-            if(IsTrue1) typ1.isArray=true;
-            if(IsTrue2) typ2.isArray=true;
-            return;
-        }
-        if (e instanceof Unary) {
-            Unary u = (Unary) e;
-            Type type = typeOf(u.term, tm); //start here
-            V(u.term, tm);
-            if (u.op.NotOp()) {
-                check((type == Type.BOOL), "type error for NotOp " + u.op);
-            }
-            else if (u.op.NegateOp()) {
-                check((type == (Type.INT) || type == (Type.FLOAT)), "type error for NegateOp " + u.op);
-            }
-            else {
-                throw new IllegalArgumentException("should never reach here UnaryOp error");
-            }
-            return;
+                position[id] = i;
+            declared[id] = ast.declaredType(d);
         }
-
-        throw new IllegalArgumentException("should never reach here");
+        if (ast.body() != AstView.NONE)
+            V(ast, ast.body(), declared);
     }
 
-    public static void V (Statement s, TypeMap tm) {
-        if ( s == null )
-            throw new IllegalArgumentException( "AST error: null statement");
-        else if (s instanceof Skip) return;
-        else if (s instanceof Assignment) {
-            Assignment a = (Assignment)s;
-            Variable tmp3=a.target;
-            Expression exp=a.source;
-            String exp2=exp.toString();
-            String tmp=tmp3.toString();
-            System.out.println("test: "+tmp);
-
-            if(tmp.contains("[")) {
-                int index=tmp.indexOf("[");
-                String tmp_change=tmp.substring(0,index);
-                Variable tmp2 = new Variable(tmp_change);
-                a.target=tmp2;
-            }
-
-            check( tm.containsKey(a.target)
-                    , " undefined target in assignment: " + a.target);
-            V(a.source, tm);
-            Type ttype = (Type)tm.get(a.target); //ttype = target type; targets are only variables in Clite which are defined in the TypeMap
-            Type srctype = typeOf(a.source, tm); //scrtype = source type; sources are Expressions or Statements which are not in the TypeMap
-            System.out.println("타입은? " + ttype.toString());
-            boolean IsTrue=false;
-            if(ttype.toString().contains("[")&& ttype.toString().contains("]")){
-                ttype.isArray=false;
-                IsTrue=true;
-            }
-            if(srctype.toString().contains("[") && srctype.toString().contains("]")){
-                srctype.isArray=false;
-            }
+    private static void fail(String msg) {
+        check(false, msg);
+    }
 
-            if (ttype.toString() != srctype.toString()) {
-                if (ttype == Type.FLOAT)
-                    check( srctype == Type.INT
-                            , "mixed mode assignment to " + a.target);
-                else if (ttype == Type.INT)
-                    check( srctype == Type.CHAR
-                            , "mixed mode assignment to " + a.target);
+    private static Type declared(AstView ast, int n, Type[] declared) { // VARIABLE n's declared type, or null
+        int id = ast.nameId(n);
+        return id < declared.length ? declared[id] : null;
+    }
 
+    // Check statement n.
+    private static void V (AstView ast, int n, Type[] declared) {
+        switch (ast.kind(n)) {
+            case AstView.SKIP:
+                return;
+            case AstView.ASSIGNMENT: {
+                int target = ast.first(n);
+                Type ttype;
+                if (ast.kind(target) == AstView.ARRAY_REF)
+                    ttype = typeOf(ast, target, declared);
+                else {
+                    ttype = declared(ast, target, declared);
+                    if (ttype == null)
+                        fail(" undefined target in assignment: " + ast.name(target));
+                    ast.annotate(target, ttype);
+                }
+                Type srctype = typeOf(ast, ast.second(n), declared);
+                if (ttype == null || srctype == null) return;
+                // NOTE: 배열은 통째로 대입할 수 없다. 백엔드는 원소 하나씩만 다룬다.
+                if (ttype.isArray() || srctype.isArray()) {
+                    fail("array assignment to " + ast.text(target));
+                    return;
+                }
+                // the same type, or one of the two widenings TypeTransformer lowers (I2F, C2I)
+                if (ttype != srctype && !(ttype == Type.FLOAT && srctype == Type.INT)
+                        && !(ttype == Type.INT && srctype == Type.CHAR))
+                    fail("mixed mode assignment to " + ast.text(target));
+                return;
             }
-            if(IsTrue) ttype.isArray=true;
-            return;
-        }
-        else if (s instanceof Conditional) {
-            Conditional c = (Conditional)s;
-            V(c.test, tm);
-            Type testtype = typeOf(c.test, tm);
-            if (testtype == Type.BOOL) {
-                V(c.thenbranch, tm);
-                V(c.elsebranch, tm);
+            case AstView.CONDITIONAL: {
+                int test = ast.first(n);
+                Type testtype = typeOf(ast, test, declared);
+                if (testtype != null && testtype != Type.BOOL)
+                    fail("poorly typed if in Conditional: " + ast.text(test));
+                V(ast, ast.second(n), declared);
+                V(ast, ast.third(n), declared);
                 return;
-            }else {
-                check( false, "poorly typed if in Conditional: " + c.test);
             }
-        }
-        else if (s instanceof Loop) {
-            Loop l = (Loop)s;
-            V(l.test, tm);
-            Type testtype = typeOf(l.test, tm);
-            if (testtype == Type.BOOL) {
-                V(l.body, tm);
-            }else {
-                check ( false, "poorly typed test in while Loop in Conditional: " + l.test);
+            case AstView.LOOP: {
+                int test = ast.first(n);
+                Type testtype = typeOf(ast, test, declared);
+                if (testtype != null && testtype != Type.BOOL)
+                    fail("poorly typed test in while Loop in Conditional: " + ast.text(test));
+                V(ast, ast.second(n), declared);
+                return;
             }
-        }
-        else if (s instanceof Block) {
-            Block b = (Block)s;
-            for(Statement i : b.members) {
-                V(i, tm);
+            case AstView.BLOCK:
+                for (int m = ast.first(n); m != AstView.NONE; m = ast.next(m))
+                    V(ast, m, declared);
+                return;
+            case AstView.SCAN:
+            case AstView.PRINT: {
+                int body = ast.first(n);
+                Type t = typeOf(ast, body, declared);
+                if (t != null && t.isArray())
+                    fail("array used in " + (ast.kind(n) == AstView.PRINT ? "print" : "scan") + ": " + ast.text(body));
+                return;
             }
-
+            default:
+                throw new IllegalArgumentException("should never reach here");
         }
-        else if(s instanceof Scan){
+    }
 
-        }
-        else if(s instanceof Print){
+    // Check expression n, annotate it and return its type, or null if it uses
+    // an undeclared name or an array as an operand (already reported).
+    // Literals know their own type.
+    private static Type typeOf (AstView ast, int n, Type[] declared) {
+        Type t = check(ast, n, declared);
+        int kind = ast.kind(n);
+        if (kind != AstView.INT_VALUE && kind != AstView.FLOAT_VALUE
+                && kind != AstView.CHAR_VALUE && kind != AstView.BOOL_VALUE)
+            ast.annotate(n, t);
+        return t;
+    }
 
-        }else {
-            throw new IllegalArgumentException("should never reach here");
+    private static Type check (AstView ast, int n, Type[] declared) {
+        switch (ast.kind(n)) {
+            case AstView.INT_VALUE:
+                return Type.INT;
+            case AstView.FLOAT_VALUE:
+                return Type.FLOAT;
+            case AstView.CHAR_VALUE:
+                return Type.CHAR;
+            case AstView.BOOL_VALUE:
+                return Type.BOOL;
+            case AstView.VARIABLE: {
+                Type t = declared(ast, n, declared);
+                if (t == null)
+                    fail("undeclared variable: " + ast.name(n));
+                return t;
+            }
+            case AstView.ARRAY_REF: {
+                int array = ast.first(n);
+                Type t = declared(ast, array, declared);
+                ast.annotate(array, t);
+                if (t == null)
+                    fail("undeclared variable: " + ast.name(array));
+                else if (!t.isArray())
+                    fail(ast.name(array) + " is not an array");
+                int count = 0;
+                for (int i = ast.second(n); i != AstView.NONE; i = ast.next(i))
+                    count++;
+                if (t != null && t.isArray() && count != t.dimensions())
+                    fail("wrong number of array indices: " + ast.text(n));
+                for (int i = ast.second(n); i != AstView.NONE; i = ast.next(i)) {
+                    Type it = typeOf(ast, i, declared);
+                    if (it != null && it != Type.INT)
+                        fail("array index must be int: " + ast.text(n));
+                }
+                return t == null ? null : t.elementType();
+            }
+            case AstView.BINARY: {
+                Operator op = ast.op(n);
+                Type typ1 = typeOf(ast, ast.first(n), declared);
+                Type typ2 = typeOf(ast, ast.second(n), declared);
+                // NOTE: 첨자 없는 배열 이름은 어떤 연산자의 피연산자도 될 수 없다. 백엔드는 스칼라만 다룬다.
+                if ((typ1 != null && typ1.isArray()) || (typ2 != null && typ2.isArray())) {
+                    fail("array used as an operand of " + op + ": " + ast.text(n));
+                    return null;
+                }
+                if (op.ArithmeticOp()) {
+                    if (typ1 != null && typ2 != null && (typ1 != typ2 || (typ1 != Type.INT && typ1 != Type.FLOAT)))
+                        fail("해당 변수끼리는 " + op + " 연산이 불가능합니다.");
+                    return typ1 == Type.FLOAT ? Type.FLOAT : Type.INT;
+                }
+                if (op.RelationalOp()) {
+                    if (typ1 != null && typ2 != null && typ1 != typ2)
+                        fail("type error for " + op);
+                    return Type.BOOL;
+                }
+                if (op.BooleanOp()) {
+                    if (typ1 != null && typ2 != null && (typ1 != Type.BOOL || typ2 != Type.BOOL))
+                        fail(op + ": non-bool operand");
+                    return Type.BOOL;
+                }
+                throw new IllegalArgumentException("should never reach here BinaryOp error");
+            }
+            case AstView.UNARY: {
+                Operator op = ast.op(n);
+                Type type = typeOf(ast, ast.first(n), declared);
+                if (type != null && type.isArray()) {
+                    fail("array used as an operand of " + op + ": " + ast.text(n));
+                    return null;
+                }
+                if (op.NotOp()) {
+                    if (type != null && type != Type.BOOL)
+                        fail("type error for NotOp " + op);
+                    return Type.BOOL;
+                }
+                if (op.NegateOp()) {
+                    if (type != null && type != Type.INT && type != Type.FLOAT)
+                        fail("type error for NegateOp " + op);
+                    return type;
+                }
+                if (op.intOp()) {
+                    if (type != null && type != Type.INT && type != Type.FLOAT && type != Type.CHAR)
+                        fail("type error for " + op + " cast");
+                    return Type.INT;
+                }
+                if (op.floatOp()) {
+                    if (type != null && type != Type.FLOAT && type != Type.INT)
+                        fail("type error for " + op + " cast");
+                    return Type.FLOAT;
+                }
+                if (op.charOp()) {
+                    if (type != null && type != Type.CHAR && type != Type.INT)
+                        fail("type error for " + op + " cast");
+                    return Type.CHAR;
+                }
+                throw new IllegalArgumentException("should never reach here UnaryOp error");
+            }
+            default:
+                throw new IllegalArgumentException("should never reach here");
         }
     }
 
-
 } // class StaticTypeCheck
\ No newline at end of file
@@ -8,6 +8,7 @@ public class Token {
     private static final int KEYWORDS = TokenType.Eof.ordinal();
     private static final String[] reserved = new String[KEYWORDS];
     private static Token[] token = new Token[KEYWORDS];
+    private static final Token[] fixed = new Token[TokenType.values().length];
 
     private TokenType type;
     private String value = "";
@@ -50,6 +51,18 @@ public class Token {
     public static final Token orTok = new Token(TokenType.Or, "||");
     public static final Token colonTok = new Token(TokenType.Colon,":");
 
+    // NOTE: 키워드 완전 해시(perfect hash) 테이블. 위의 키워드 토큰들이 모두 만들어진 뒤에
+    // 채워야 하므로 반드시 토큰 상수들 아래에 있어야 한다.
+    // 첫 글자, 마지막 글자, 길이로 슬롯을 정하고, 충돌이 없는 곱셈 상수를 클래스 초기화 때 찾는다.
+    private static final int HASH_BITS = 5;
+    private static final Token[] keywordTable = new Token[1 << HASH_BITS];
+    private static final int hashMultiplier = findHashMultiplier();
+
+    static {
+        for (int i = 0; i < KEYWORDS; i++)
+            keywordTable[slot(reserved[i], 0, reserved[i].length(), hashMultiplier)] = token[i];
+    }
+
     private Token(TokenType t, String v) {
         type = t;
         value = v;
@@ -58,16 +71,53 @@ public class Token {
             reserved[ti] = v;
             token[ti] = this;
         }
+        if (!hasText(t))
+            fixed[t.ordinal()] = this;
+    }
+
+    // Identifiers and literals carry their own spelling; every other type has one shared Token.
+    public static boolean hasText(TokenType t) {
+        return t == TokenType.Identifier || t == TokenType.IntLiteral
+                || t == TokenType.FloatLiteral || t == TokenType.CharLiteral;
+    }
+
+    public static Token fixedToken(TokenType t) {
+        return fixed[t.ordinal()];
+    }
+
+    private static int slot(CharSequence text, int start, int length, int multiplier) {
+        int h = (text.charAt(start) * 31 + text.charAt(start + length - 1)) * 31 + length;
+        return (h * multiplier) >>> (32 - HASH_BITS);
+    }
+
+    private static int findHashMultiplier() {
+        for (int m = 0x9E3779B1; ; m += 2) {
+            boolean[] used = new boolean[1 << HASH_BITS];
+            boolean perfect = true;
+            for (int i = 0; i < KEYWORDS && perfect; i++) {
+                int s = slot(reserved[i], 0, reserved[i].length(), m);
+                perfect = !used[s];
+                used[s] = true;
+            }
+            if (perfect) return m;
+        }
     }
 
     public static Token keyword(String name) {
-        char ch = name.charAt(0);
-        if (ch >= 'A' && ch <= 'Z') return mkIdentTok(name);
-        for (int i = 0; i < KEYWORDS; i++)
-            if (name.equals(reserved[i])) return token[i];
-        return mkIdentTok(name);
+        Token t = reservedWord(name, 0, name.length());
+        return t != null ? t : mkIdentTok(name);
     } // keyword
 
+    // Return the keyword token spelled by text[start, start + length), or null.
+    // One table probe and a char-by-char compare; no String is created.
+    public static Token reservedWord(CharSequence text, int start, int length) {
+        Token t = keywordTable[slot(text, start, length, hashMultiplier)];
+        if (t == null || t.value.length() != length) return null;
+        for (int i = 0; i < length; i++)
+            if (t.value.charAt(i) != text.charAt(start + i)) return null;
+        return t;
+    }
+
     public static Token mkIdentTok(String name) {
         return new Token(TokenType.Identifier, name);
     }
@@ -0,0 +1,137 @@
+package kr.youngminz.clitelexer;
+
+public class TokenBuffer {
+    // Token stream of a whole source stored as parallel primitive arrays:
+    // a TokenType ordinal, a start offset and a length into the source.
+    // Token text is sliced out of the source only when text() or token() asks for it.
+    //
+    // The arrays are a gap buffer, so IncrementalParser can replace the tokens
+    // an edit damaged in time proportional to the edit. A token behind the gap
+    // stores its start relative to the end of the source: an edit of the
+    // source in front of it moves it along without being written.
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private byte[] types = new byte[256];
+    private int[] starts = new int[256];
+    private int[] lengths = new int[256];
+    private int gapStart = 0, gapEnd = 256; // [gapStart, gapEnd) of the arrays is free
+
+    public TokenBuffer(CharSequence src) {
+        source = src;
+    }
+
+    void add(TokenType t, int start, int length) { // insert a token at the gap, normally the end
+        if (gapStart == gapEnd)
+            grow(1);
+        types[gapStart] = (byte) t.ordinal();
+        starts[gapStart] = start;
+        lengths[gapStart] = length;
+        gapStart++;
+    }
+
+    void append(TokenBuffer other, int offset, int count) { // copy other's first count tokens, shifted by offset
+        if (gapEnd - gapStart < count)
+            grow(count);
+        for (int i = 0; i < count; i++)
+            add(other.type(i), other.start(i) + offset, other.length(i));
+    }
+
+    // Put the gap in front of token index: that token and the ones after it
+    // then keep their place relative to the end of the source.
+    void moveGap(int index) {
+        int end = source.length();
+        while (gapStart > index) {
+            gapStart--;
+            gapEnd--;
+            types[gapEnd] = types[gapStart];
+            starts[gapEnd] = starts[gapStart] - end;
+            lengths[gapEnd] = lengths[gapStart];
+        }
+        while (gapStart < index) {
+            types[gapStart] = types[gapEnd];
+            starts[gapStart] = starts[gapEnd] + end;
+            lengths[gapStart] = lengths[gapEnd];
+            gapStart++;
+            gapEnd++;
+        }
+    }
+
+    // Replace tokens [from, to) with the tokens of fresh, whose starts are in the current source.
+    void replace(int from, int to, TokenBuffer fresh) {
+        moveGap(from);
+        gapEnd += to - from;
+        append(fresh, 0, fresh.size());
+    }
+
+    private void grow(int needed) {
+        int capacity = Math.max(types.length * 2, size() + needed);
+        int tail = types.length - gapEnd;
+        byte[] t = new byte[capacity];
+        int[] s = new int[capacity], l = new int[capacity];
+        System.arraycopy(types, 0, t, 0, gapStart);
+        System.arraycopy(starts, 0, s, 0, gapStart);
+        System.arraycopy(lengths, 0, l, 0, gapStart);
+        System.arraycopy(types, gapEnd, t, capacity - tail, tail);
+        System.arraycopy(starts, gapEnd, s, capacity - tail, tail);
+        System.arraycopy(lengths, gapEnd, l, capacity - tail, tail);
+        types = t;
+        starts = s;
+        lengths = l;
+        gapEnd = capacity - tail;
+    }
+
+    private int at(int i) { // array slot of token i
+        return i < gapStart ? i : i + gapEnd - gapStart;
+    }
+
+    public int size() {
+        return types.length - (gapEnd - gapStart);
+    }
+
+    public CharSequence source() {
+        return source;
+    }
+
+    public TokenType type(int i) {
+        return TYPES[types[at(i)]];
+    }
+
+    public int start(int i) {
+        return i < gapStart ? starts[i] : starts[at(i)] + source.length();
+    }
+
+    public int length(int i) {
+        return lengths[at(i)];
+    }
+
+    public String text(int i) {
+        TokenType t = type(i);
+        if (!Token.hasText(t))
+            return Token.fixedToken(t).value();
+        int start = start(i);
+        if (t == TokenType.CharLiteral) // 'c' --> c
+            return source.subSequence(start + 1, start + 2).toString();
+        return source.subSequence(start, start + length(i)).toString();
+    }
+
+    public char charValue(int i) { // CharLiteral 'c' --> c, without making a String
+        return source.charAt(start(i) + 1);
+    }
+
+    public Token token(int i) {
+        switch (type(i)) {
+            case Identifier:
+                return Token.mkIdentTok(text(i));
+            case IntLiteral:
+                return Token.mkIntLiteral(text(i));
+            case FloatLiteral:
+                return Token.mkFloatLiteral(text(i));
+            case CharLiteral:
+                return Token.mkCharLiteral(text(i));
+            default:
+                return Token.fixedToken(type(i));
+        }
+    }
+}
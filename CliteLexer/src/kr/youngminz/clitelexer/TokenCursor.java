@@ -0,0 +1,50 @@
+package kr.youngminz.clitelexer;
+
+public class TokenCursor implements TokenStream {
+    // Reads a TokenBuffer front to back. The Parser moves with advance(),
+    // which only looks at the type array; the text of the current token is
+    // sliced out of the source when text() asks for it, and a Token is made
+    // only for next() and for error messages.
+
+    private final TokenBuffer tokens;
+    private int index = 0;
+
+    public TokenCursor(TokenBuffer tb) {
+        this(tb, 0);
+    }
+
+    public TokenCursor(TokenBuffer tb, int start) {
+        tokens = tb;
+        index = start;
+    }
+
+    public Token next() {
+        advance();
+        return token();
+    }
+
+    public TokenType advance() { // move to the next token and return its type
+        index++;
+        return tokens.type(current());
+    }
+
+    private int current() {
+        return Math.min(index - 1, tokens.size() - 1); // stay on Eof
+    }
+
+    public String text() { // spelling of the token advance() moved to
+        return tokens.text(current());
+    }
+
+    public char charValue() { // the character of a CharLiteral
+        return tokens.charValue(current());
+    }
+
+    public Token token() {
+        return tokens.token(current());
+    }
+
+    public int index() {
+        return index;
+    }
+}
@@ -0,0 +1,6 @@
+package kr.youngminz.clitelexer;
+
+public interface TokenStream {
+    // A source of tokens for the Parser; after Eof it keeps returning Token.eofTok.
+    Token next();
+}
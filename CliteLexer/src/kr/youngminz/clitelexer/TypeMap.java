@@ -4,8 +4,15 @@ import java.util.*;
 
 public class TypeMap extends HashMap<Variable, Type> {
 
+    public TypeMap() {
+    }
+
+    public TypeMap(int declarations) { // sized so that many declarations never rehash
+        super(declarations * 4 / 3 + 1);
+    }
+
     public void display()
     {
         System.out.println(this.entrySet());
     }
-}
\ No newline at end of file
+}
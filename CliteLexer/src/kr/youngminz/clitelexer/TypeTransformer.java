@@ -0,0 +1,157 @@
+package kr.youngminz.clitelexer;
+
+public class TypeTransformer {
+    // Lowers a type checked Program: every Binary and Unary gets the typed
+    // operator of its operand type (INT+, FLOAT<, ...) from Operator's maps,
+    // casts become explicit conversions (I2F, F2I, C2I, I2C), and mixed mode
+    // assignments get the conversion they imply. A backend can then dispatch
+    // on the operator alone. Every new node carries its type.
+    // A multi-dimensional array reference becomes a one-index reference to
+    // the row-major offset into the array's flat buffer, with each subscript
+    // checked against its own dimension.
+    //
+    // NOTE: StaticTypeCheck.V(Program) 이 먼저 돌아서 모든 식에 타입이 붙어 있어야 한다.
+
+    public static Program T (Program p, TypeMap tm) {
+        Block body = (Block) T(p.body, tm);
+        return new Program(p.decpart, body);
+    }
+
+    public static Expression T (Expression e, TypeMap tm) {
+        if (e instanceof Value)
+            return e;
+        if (e instanceof Variable)
+            return e;
+        if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            if (r.indices.size() > 1)
+                return typed(new ArrayRef(r.array, offset(r, tm)), e.type);
+            return typed(new ArrayRef(r.array, T(r.index, tm)), e.type);
+        }
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            Type typ1 = StaticTypeCheck.typeOf(b.term1, tm);
+            Expression t1 = T(b.term1, tm);
+            Expression t2 = T(b.term2, tm);
+            if (b.op.BooleanOp())  // && and || only take bools already
+                return typed(new Binary(b.op, t1, t2), Type.BOOL);
+            if (typ1 == Type.INT)
+                return typed(new Binary(Operator.intMap(b.op), t1, t2), e.type);
+            else if (typ1 == Type.FLOAT)
+                return typed(new Binary(Operator.floatMap(b.op), t1, t2), e.type);
+            else if (typ1 == Type.CHAR)
+                return typed(new Binary(Operator.charMap(b.op), t1, t2), e.type);
+            else if (typ1 == Type.BOOL)
+                return typed(new Binary(Operator.boolMap(b.op), t1, t2), e.type);
+            throw new IllegalArgumentException("should never reach here");
+        }
+        if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            Type typ = StaticTypeCheck.typeOf(u.term, tm);
+            Expression t = T(u.term, tm);
+            switch (u.op) {
+                case NOT:
+                    return typed(new Unary(u.op, t), Type.BOOL);
+                case NEG:
+                    return typed(new Unary(typ == Type.FLOAT ? Operator.floatMap(u.op) : Operator.intMap(u.op), t), typ);
+                case INT:
+                    if (typ == Type.FLOAT) return convert(Operator.F2I, t, Type.INT);
+                    if (typ == Type.CHAR) return convert(Operator.C2I, t, Type.INT);
+                    break;
+                case FLOAT:
+                    if (typ == Type.INT) return convert(Operator.I2F, t, Type.FLOAT);
+                    break;
+                case CHAR:
+                    if (typ == Type.INT) return convert(Operator.I2C, t, Type.CHAR);
+                    break;
+                default:
+                    throw new IllegalArgumentException("should never reach here");
+            }
+            if (e.type == typ) // a cast to the type it already has
+                return t;
+            throw new IllegalArgumentException("should never reach here");
+        }
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    public static Statement T (Statement s, TypeMap tm) {
+        if (s instanceof Skip) return s;
+        if (s instanceof Assignment) {
+            Assignment a = (Assignment) s;
+            VariableRef target = (VariableRef) T(a.target, tm);
+            Expression src = T(a.source, tm);
+            Type ttype = StaticTypeCheck.typeOf(a.target, tm);
+            Type srctype = StaticTypeCheck.typeOf(a.source, tm);
+            if (ttype == Type.FLOAT && srctype == Type.INT)
+                src = convert(Operator.I2F, src, Type.FLOAT);
+            else if (ttype == Type.INT && srctype == Type.CHAR)
+                src = convert(Operator.C2I, src, Type.INT);
+            return new Assignment(target, src);
+        }
+        if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            Expression test = T(c.test, tm);
+            Statement tbr = T(c.thenbranch, tm);
+            Statement ebr = T(c.elsebranch, tm);
+            return new Conditional(test, tbr, ebr);
+        }
+        if (s instanceof Loop) {
+            Loop l = (Loop) s;
+            Expression test = T(l.test, tm);
+            Statement body = T(l.body, tm);
+            return new Loop(test, body);
+        }
+        if (s instanceof Block) {
+            Block b = (Block) s;
+            Block out = new Block();
+            for (Statement stmt : b.members)
+                out.members.add(T(stmt, tm));
+            return out;
+        }
+        if (s instanceof Print)
+            return new Print(T(((Print) s).body, tm));
+        if (s instanceof Scan)
+            return new Scan((VariableRef) T(((Scan) s).var, tm));
+        throw new IllegalArgumentException("should never reach here");
+    }
+
+    // i0*stride(0) + ... + in*stride(n), with the constant subscripts folded
+    // into one literal. Every subscript but the first is wrapped in an INDEX
+    // check against its dimension unless it is a literal in range; once they
+    // are in range, the bounds check of the whole buffer that every backend
+    // makes holds exactly when i0 is in range too. So m[0][4] of an int[3][4]
+    // is out of bounds, as in the Java text -javac runs, not m[1][0].
+    private static Expression offset(ArrayRef r, TypeMap tm) {
+        Type at = r.array.type;
+        Expression sum = null;
+        int constant = 0;
+        for (int k = 0; k < r.indices.size(); k++) {
+            Expression i = T(r.indices.get(k), tm);
+            int stride = at.stride(k);
+            if (k > 0 && !inRange(i, at.dimension(k)))
+                i = typed(new Binary(Operator.INDEX, i, new IntValue(at.dimension(k))), Type.INT);
+            if (i instanceof IntValue) {
+                constant += ((IntValue) i).intValue() * stride;
+                continue;
+            }
+            Expression term = stride == 1 ? i : typed(new Binary(Operator.INT_TIMES, i, new IntValue(stride)), Type.INT);
+            sum = sum == null ? term : typed(new Binary(Operator.INT_PLUS, sum, term), Type.INT);
+        }
+        if (sum == null)
+            return new IntValue(constant);
+        return constant == 0 ? sum : typed(new Binary(Operator.INT_PLUS, sum, new IntValue(constant)), Type.INT);
+    }
+
+    private static boolean inRange(Expression i, int dimension) {
+        return i instanceof IntValue && ((IntValue) i).intValue() >= 0 && ((IntValue) i).intValue() < dimension;
+    }
+
+    private static Expression convert(Operator op, Expression e, Type to) {
+        return typed(new Unary(op, e), to);
+    }
+
+    private static Expression typed(Expression e, Type t) {
+        e.type = t;
+        return e;
+    }
+}
@@ -0,0 +1,307 @@
+package kr.youngminz.clitelexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static kr.youngminz.clitelexer.StackVM.*;
+
+class VmCompiler {
+    // Compiles a lowered Program (TypeTransformer output) to StackVM code.
+    // Scalars get a local slot and arrays an array number; conditionals and
+    // loops compile to branches the same way BytecodeGenerator does, with
+    // int compares fused into the branch.
+
+    // LT, LE, EQ, NE, GT, GE; the negation of relation r is 5 - r
+    private static final int[] IF = {IF_LT, IF_LE, IF_EQ, IF_NE, IF_GT, IF_GE};
+    private static final int[] ICMP = {ILT, ILE, IEQ, INE, IGT, IGE};
+    private static final int[] FCMP = {FLT, FLE, FEQ, FNE, FGT, FGE};
+
+    private int[] code = new int[64];
+    private int size = 0;
+    private int stack = 0, maxStack = 0;
+    private final List<Integer> constants = new ArrayList<Integer>();
+    private final Map<Integer, Integer> constantIndex = new HashMap<Integer, Integer>();
+
+    private final Map<Variable, Integer> slots = new HashMap<Variable, Integer>(); // scalar slot or array number
+    private final Map<Variable, Type> types = new HashMap<Variable, Type>();
+    private int locals = 0;
+    private final List<Integer> arraySizes = new ArrayList<Integer>();
+    private final List<String> arrayNames = new ArrayList<String>();
+
+    private static class Label {
+        int position = -1;
+        final List<Integer> fixups = new ArrayList<Integer>(); // code offsets holding the target
+    }
+
+    static StackVM compile(Program p) {
+        VmCompiler c = new VmCompiler();
+        c.declare(p.decpart);
+        c.statement(p.body);
+        c.op(HALT, 0);
+        int[] constants = new int[c.constants.size()];
+        for (int i = 0; i < constants.length; i++)
+            constants[i] = c.constants.get(i);
+        int[] sizes = new int[c.arraySizes.size()];
+        for (int i = 0; i < sizes.length; i++)
+            sizes[i] = c.arraySizes.get(i);
+        return new StackVM(Arrays.copyOf(c.code, c.size), constants, c.locals, sizes,
+                c.arrayNames.toArray(new String[0]), c.maxStack);
+    }
+
+    private void declare(Declarations ds) {
+        for (Declaration d : ds) {
+            types.put(d.v, d.t);
+            if (d.t.isArray()) {
+                slots.put(d.v, arraySizes.size());
+                arraySizes.add(d.t.arraySize());
+                arrayNames.add(d.v.toString());
+            } else
+                slots.put(d.v, locals++);
+        }
+    }
+
+    // ---- emission ----
+
+    private void emit(int word) {
+        if (size == code.length)
+            code = Arrays.copyOf(code, size * 2);
+        code[size++] = word;
+    }
+
+    private void op(int opcode, int delta) {
+        emit(opcode);
+        stack += delta;
+        if (stack > maxStack)
+            maxStack = stack;
+    }
+
+    private void op(int opcode, int operand, int delta) {
+        op(opcode, delta);
+        emit(operand);
+    }
+
+    private void branch(int opcode, Label target, int delta) {
+        op(opcode, delta);
+        if (target.position < 0) // a forward branch: patched by place
+            target.fixups.add(size);
+        emit(target.position);
+    }
+
+    private void place(Label l) {
+        l.position = size;
+        for (int at : l.fixups)
+            code[at] = size;
+    }
+
+    private int constant(float f) {
+        int bits = Float.floatToRawIntBits(f);
+        Integer i = constantIndex.get(bits);
+        if (i == null) {
+            i = constants.size();
+            constants.add(bits);
+            constantIndex.put(bits, i);
+        }
+        return i;
+    }
+
+    // ---- statements ----
+
+    private void statement(Statement s) {
+        if (s instanceof Skip)
+            return;
+        if (s instanceof Block) {
+            for (Statement m : ((Block) s).members)
+                statement(m);
+        } else if (s instanceof Assignment) {
+            Assignment a = (Assignment) s;
+            if (a.target instanceof ArrayRef) {
+                ArrayRef r = (ArrayRef) a.target;
+                value(r.index);
+                value(a.source);
+                op(ASTORE, slots.get(r.array), -2);
+            } else {
+                value(a.source);
+                op(STORE, slots.get((Variable) a.target), -1);
+            }
+        } else if (s instanceof Conditional) {
+            Conditional c = (Conditional) s;
+            Label otherwise = new Label(), end = new Label();
+            jump(c.test, false, otherwise);
+            statement(c.thenbranch);
+            branch(JMP, end, 0);
+            place(otherwise);
+            statement(c.elsebranch);
+            place(end);
+        } else if (s instanceof Loop) {
+            // the test sits after the body, so each iteration takes one branch
+            Loop l = (Loop) s;
+            Label body = new Label(), test = new Label();
+            branch(JMP, test, 0);
+            place(body);
+            statement(l.body);
+            place(test);
+            jump(l.test, true, body);
+        } else if (s instanceof Print) {
+            Expression e = ((Print) s).body;
+            value(e);
+            Type t = typeOf(e);
+            op(t == Type.INT ? PRINT_I : t == Type.FLOAT ? PRINT_F : t == Type.BOOL ? PRINT_Z : PRINT_C, -1);
+        } else if (s instanceof Scan) {
+            VariableRef v = ((Scan) s).var;
+            Type t = typeOf(v);
+            int read = t == Type.INT ? READ_I : t == Type.FLOAT ? READ_F : t == Type.BOOL ? READ_Z : READ_C;
+            if (v instanceof ArrayRef) {
+                ArrayRef r = (ArrayRef) v;
+                value(r.index);
+                op(read, 1);
+                op(ASTORE, slots.get(r.array), -2);
+            } else {
+                op(read, 1);
+                op(STORE, slots.get((Variable) v), -1);
+            }
+        } else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    // ---- expressions ----
+
+    private void value(Expression e) {
+        if (e instanceof Value) {
+            Value v = (Value) e;
+            if (v.type() == Type.FLOAT)
+                op(LDC, constant(v.floatValue()), 1);
+            else if (v.type() == Type.CHAR)
+                op(PUSH, v.charValue(), 1);
+            else
+                op(PUSH, v.intValue(), 1); // IntValue, or BoolValue as 0/1
+        } else if (e instanceof Variable) {
+            op(LOAD, slots.get(e), 1);
+        } else if (e instanceof ArrayRef) {
+            ArrayRef r = (ArrayRef) e;
+            value(r.index);
+            op(ALOAD, slots.get(r.array), 0);
+        } else if (e instanceof Binary && ((Binary) e).op == Operator.INDEX) {
+            Binary b = (Binary) e;
+            value(b.term1);
+            op(INDEX, ((Value) b.term2).intValue(), 0);
+        } else if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            int opcode = arithmetic(b.op);
+            if (opcode == 0) { // relational or boolean: a bool from a branch
+                bool(e);
+                return;
+            }
+            value(b.term1);
+            value(b.term2);
+            op(opcode, -1);
+        } else if (e instanceof Unary) {
+            Unary u = (Unary) e;
+            value(u.term);
+            switch (u.op) {
+                case NOT: op(NOT, 0); break;
+                case INT_NEG: op(INEG, 0); break;
+                case FLOAT_NEG: op(FNEG, 0); break;
+                case I2F: op(I2F, 0); break;
+                case F2I: op(F2I, 0); break;
+                case I2C: op(I2C, 0); break;
+                case C2I: break; // a char already is an int
+                default:
+                    throw new IllegalArgumentException("should never reach here: " + u.op);
+            }
+        } else
+            throw new IllegalArgumentException("should never reach here");
+    }
+
+    private static int arithmetic(Operator op) {
+        switch (op) {
+            case INT_PLUS: return IADD;
+            case INT_MINUS: return ISUB;
+            case INT_TIMES: return IMUL;
+            case INT_DIV: return IDIV;
+            case FLOAT_PLUS: return FADD;
+            case FLOAT_MINUS: return FSUB;
+            case FLOAT_TIMES: return FMUL;
+            case FLOAT_DIV: return FDIV;
+            default: return 0;
+        }
+    }
+
+    private void bool(Expression e) { // push 1 if e holds, else 0
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            int rel = relation(b.op);
+            if (rel >= 0) { // one compare instruction, no branch
+                value(b.term1);
+                value(b.term2);
+                op(typeOf(b.term1) == Type.FLOAT ? FCMP[rel] : ICMP[rel], -1);
+                return;
+            }
+        }
+        Label yes = new Label(), end = new Label();
+        jump(e, true, yes);
+        op(PUSH, 0, 1);
+        branch(JMP, end, 0);
+        place(yes);
+        stack--; // the 0 above was not pushed on this path
+        op(PUSH, 1, 1);
+        place(end);
+    }
+
+    // Branch to target if e evaluates to when; fall through otherwise.
+    private void jump(Expression e, boolean when, Label target) {
+        if (e instanceof Binary) {
+            Binary b = (Binary) e;
+            if (b.op == Operator.AND || b.op == Operator.OR) {
+                boolean and = b.op == Operator.AND;
+                if (when != and) { // the left operand alone decides: both jump to target
+                    jump(b.term1, when, target);
+                    jump(b.term2, when, target);
+                } else {
+                    Label skip = new Label();
+                    jump(b.term1, !when, skip);
+                    jump(b.term2, when, target);
+                    place(skip);
+                }
+                return;
+            }
+            int rel = relation(b.op);
+            if (rel >= 0 && typeOf(b.term1) != Type.FLOAT) {
+                value(b.term1);
+                value(b.term2);
+                branch(IF[when ? rel : 5 - rel], target, -2);
+                return;
+            }
+            // NOTE: 실수 비교는 NaN 때문에 반대 관계로 바꿀 수 없으므로 0|1 을 만든 뒤 분기한다.
+        }
+        if (e instanceof Unary && ((Unary) e).op == Operator.NOT) {
+            jump(((Unary) e).term, !when, target);
+            return;
+        }
+        value(e);
+        branch(when ? JNZ : JZ, target, -1);
+    }
+
+    private static int relation(Operator op) {
+        switch (op) {
+            case INT_LT: case FLOAT_LT: case CHAR_LT: case BOOL_LT: return 0;
+            case INT_LE: case FLOAT_LE: case CHAR_LE: case BOOL_LE: return 1;
+            case INT_EQ: case FLOAT_EQ: case CHAR_EQ: case BOOL_EQ: return 2;
+            case INT_NE: case FLOAT_NE: case CHAR_NE: case BOOL_NE: return 3;
+            case INT_GT: case FLOAT_GT: case CHAR_GT: case BOOL_GT: return 4;
+            case INT_GE: case FLOAT_GE: case CHAR_GE: case BOOL_GE: return 5;
+            default: return -1;
+        }
+    }
+
+    // ---- types ----
+
+    private Type typeOf(Expression e) {
+        if (e instanceof Value) return ((Value) e).type();
+        if (e instanceof Variable) return types.get(e);
+        if (e instanceof ArrayRef) return types.get(((ArrayRef) e).array).elementType();
+        return e.type; // Binary and Unary are typed by TypeTransformer
+    }
+}